@@ -0,0 +1,23 @@
+package com.edulink.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Settings for the post-upload processing pool (documents.processing.* properties)
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "documents.processing")
+public class DocumentProcessingProperties {
+
+    // Processing threads
+    private int threads = 2;
+
+    // Documents allowed to wait for a thread; the rest are picked up by the sweep
+    private int queueCapacity = 100;
+
+    // How often PENDING documents are looked for (ms): missed submissions, restarts
+    private long sweepInterval = 60000;
+}
@@ -0,0 +1,26 @@
+package com.edulink.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Settings for the password hashing executor (security.password-hashing.* properties)
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "security.password-hashing")
+public class PasswordHashingProperties {
+
+    // Hashing threads; 0 means one per available processor
+    private int threads = 0;
+
+    // Hash requests allowed to wait for a thread before new ones are rejected
+    private int queueCapacity = 64;
+
+    // Longest a request waits for its hash (ms) before giving up
+    private long maxWait = 2000;
+
+    // Retry-After sent with the 503 when hashing is saturated
+    private int retryAfter = 1;
+}
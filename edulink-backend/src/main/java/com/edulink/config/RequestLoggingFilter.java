@@ -0,0 +1,134 @@
+package com.edulink.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Writes one key=value line per HTTP request to the "edulink.requests" logger.
+ *
+ * Requests are sampled per category so that hot endpoints do not flood the log;
+ * server errors and slow requests are always logged. Runs ahead of Spring Security
+ * so rejected requests are logged too, and puts a request id in the MDC so other
+ * log lines of the same request can be correlated.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+public class RequestLoggingFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger("edulink.requests");
+
+    /** Request attribute holding the authenticated username, set by the JWT filter */
+    public static final String USER_ATTRIBUTE = RequestLoggingFilter.class.getName() + ".user";
+
+    public static final String REQUEST_ID_HEADER = "X-Request-Id";
+    static final String REQUEST_ID_MDC_KEY = "requestId";
+
+    private final RequestLoggingProperties properties;
+
+    public RequestLoggingFilter(RequestLoggingProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        String requestId = request.getHeader(REQUEST_ID_HEADER);
+        if (!isValidRequestId(requestId)) {
+            requestId = Long.toHexString(ThreadLocalRandom.current().nextLong());
+        }
+        MDC.put(REQUEST_ID_MDC_KEY, requestId);
+        response.setHeader(REQUEST_ID_HEADER, requestId);
+
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            failed = false;
+        } finally {
+            long durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            // An exception escaping the chain ends up as a 500 even if no status was set yet
+            int status = failed ? HttpServletResponse.SC_INTERNAL_SERVER_ERROR : response.getStatus();
+            log(request, status, durationMillis);
+            MDC.remove(REQUEST_ID_MDC_KEY);
+        }
+    }
+
+    // Helper methods
+
+    private void log(HttpServletRequest request, int status, long durationMillis) {
+        boolean alwaysLogged = status >= 500 || durationMillis >= properties.getSlowRequestThreshold();
+        if (alwaysLogged) {
+            if (logger.isWarnEnabled()) {
+                logger.warn("method={} path={} status={} durationMs={} user={}",
+                        request.getMethod(), request.getRequestURI(), status, durationMillis, userOf(request));
+            }
+            return;
+        }
+
+        if (!logger.isInfoEnabled()) {
+            return;
+        }
+        double sampleRate = sampleRate(request.getRequestURI());
+        if (sampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            logger.info("method={} path={} status={} durationMs={} user={} sampleRate={}",
+                    request.getMethod(), request.getRequestURI(), status, durationMillis, userOf(request), sampleRate);
+        }
+    }
+
+    private double sampleRate(String path) {
+        Double rate = properties.getSampleRates().get(categoryOf(path));
+        return rate != null ? rate : properties.getDefaultSampleRate();
+    }
+
+    /**
+     * First path segment after /api, or the first segment for other paths
+     */
+    static String categoryOf(String path) {
+        int start = path.startsWith("/api/") ? 5 : 1;
+        if (start >= path.length()) {
+            return "";
+        }
+        int end = path.indexOf('/', start);
+        return end < 0 ? path.substring(start) : path.substring(start, end);
+    }
+
+    /**
+     * Client-supplied ids end up in log lines, so only short alphanumeric ids are kept
+     */
+    private static boolean isValidRequestId(String requestId) {
+        if (requestId == null || requestId.isEmpty() || requestId.length() > 64) {
+            return false;
+        }
+        for (int i = 0; i < requestId.length(); i++) {
+            char c = requestId.charAt(i);
+            if (!(Character.isLetterOrDigit(c) && c < 128) && c != '-' && c != '_') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Object userOf(HttpServletRequest request) {
+        Object user = request.getAttribute(USER_ATTRIBUTE);
+        return user != null ? user : "-";
+    }
+}
@@ -0,0 +1,28 @@
+package com.edulink.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Settings for the per-request log line (request-logging.* properties)
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "request-logging")
+public class RequestLoggingProperties {
+
+    private boolean enabled = true;
+
+    // Fraction of requests logged when the category has no rate of its own
+    private double defaultSampleRate = 1.0;
+
+    // Rates per category: the first path segment after /api ("documents", "forum", ...) or "actuator"
+    private Map<String, Double> sampleRates = new HashMap<>();
+
+    // Requests at least this slow (ms) are always logged, as are 5xx responses
+    private long slowRequestThreshold = 1000;
+}
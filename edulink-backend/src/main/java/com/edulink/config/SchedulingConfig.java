@@ -0,0 +1,12 @@
+package com.edulink.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables @Scheduled background jobs (aggregate reconciliation, buffer flushes, ...)
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -1,7 +1,9 @@
 package com.edulink.config;
 
+import com.edulink.security.BoundedPasswordEncoder;
 import com.edulink.security.CustomUserDetailsService;
 import com.edulink.security.JwtAuthenticationFilter;
+import io.micrometer.core.instrument.MeterRegistry;
 
 import java.util.Arrays;
 
@@ -9,6 +11,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
@@ -19,6 +22,7 @@ import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.HttpStatusEntryPoint;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
@@ -34,6 +38,12 @@ public class SecurityConfig {
     @Autowired
     private JwtAuthenticationFilter jwtAuthenticationFilter;
 
+    @Autowired
+    private PasswordHashingProperties passwordHashingProperties;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
@@ -72,11 +82,15 @@ public class SecurityConfig {
                 // Actuator endpoints
                 .requestMatchers("/actuator/health").permitAll()
                 .requestMatchers("/acuator/info").permitAll()
+                .requestMatchers("/actuator/metrics", "/actuator/metrics/**").hasAuthority("ADMIN")
                 // ========== AUTHENTICATED ENDPOINTS ==========
                 
                 // Documents - Authenticated
                 .requestMatchers(HttpMethod.GET, "/api/documents/{documentId}/download").authenticated()
+                .requestMatchers(HttpMethod.GET, "/api/documents/{documentId}/processing").authenticated()
                 .requestMatchers(HttpMethod.POST, "/api/documents/upload").authenticated()
+                .requestMatchers(HttpMethod.POST, "/api/documents/upload/stream").authenticated()
+                .requestMatchers("/api/documents/upload-sessions", "/api/documents/upload-sessions/**").authenticated()
                 .requestMatchers(HttpMethod.POST, "/api/documents/{documentId}/rate").authenticated()
                 .requestMatchers(HttpMethod.DELETE, "/api/documents/{id}").authenticated()
                 
@@ -102,6 +116,10 @@ public class SecurityConfig {
             .sessionManagement(session -> session
                 .sessionCreationPolicy(SessionCreationPolicy.STATELESS)
             )
+            // A missing or expired access token is a 401, which tells the client to refresh it
+            .exceptionHandling(exceptions -> exceptions
+                .authenticationEntryPoint(new HttpStatusEntryPoint(HttpStatus.UNAUTHORIZED))
+            )
             .authenticationProvider(authenticationProvider())
             .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
 
@@ -133,12 +151,12 @@ public class SecurityConfig {
     }
 
     /***
-     * Password Encoder Bean
+     * Password Encoder Bean: BCrypt on a bounded executor, so hashing cannot take over request threads
      * @return
      */
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(), passwordHashingProperties, meterRegistry);
     }
 
 
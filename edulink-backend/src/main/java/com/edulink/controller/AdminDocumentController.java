@@ -1,8 +1,8 @@
 package com.edulink.controller;
 
 
+import com.edulink.dto.document.DocumentDTO;
 import com.edulink.dto.document.ValidationStatsDTO;
-import com.edulink.model.Document;
 import com.edulink.service.DocumentValidationService;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
@@ -33,11 +33,11 @@ public class AdminDocumentController {
      * Get all documents for validation (pending first)
      */
     @GetMapping("/validate")
-    public ResponseEntity<List<Document>> getDocumentsForValidation(
+    public ResponseEntity<List<DocumentDTO>> getDocumentsForValidation(
             @AuthenticationPrincipal UserDetails userDetails
     ) {
         logger.info("Admin {} requesting documents for validation", userDetails.getUsername());
-        List<Document> documents = validationService.getDocumentsForValidation(userDetails.getUsername());
+        List<DocumentDTO> documents = validationService.getDocumentsForValidation(userDetails.getUsername());
         return ResponseEntity.ok(documents);
     }
 
@@ -51,7 +51,7 @@ public class AdminDocumentController {
             @AuthenticationPrincipal UserDetails userDetails
     ) {
         logger.info("Admin {} approving document {}", userDetails.getUsername(), id);
-        Document approved = validationService.approveDocument(id, userDetails.getUsername());
+        DocumentDTO approved = validationService.approveDocument(id, userDetails.getUsername());
         
         return ResponseEntity.ok(Map.of(
                 "message", "Document approved successfully",
@@ -3,6 +3,7 @@ package com.edulink.controller;
 
 import com.edulink.dto.AuthResponse;
 import com.edulink.dto.LoginRequest;
+import com.edulink.dto.RefreshRequest;
 import com.edulink.dto.RegisterRequest;
 import com.edulink.dto.user.UserDTO;
 import com.edulink.exception.BusinessException;
@@ -61,6 +62,19 @@ public class AuthController {
     }
 
 
+    /**
+     * Exchange a refresh token for a new access token and refresh token
+     * @param request Refresh token
+     * @return AuthResponse with new tokens
+     */
+    @PostMapping("/refresh")
+    public ResponseEntity<AuthResponse> refresh(@Valid @RequestBody RefreshRequest request) {
+        AuthResponse response = authService.refresh(request);
+        log.debug("Token refreshed for: {}", response.getUsername());
+        return ResponseEntity.ok(response);
+    }
+
+
     /**
      * Get current authenticated user details
      * @param userDetails Authenticated user from security context
@@ -97,12 +111,20 @@ public class AuthController {
 
 
     /**
-     * Logout user (client-side token removal)
+     * Logout user: the bearer token and the refresh token family are revoked server-side
+     * @param authorizationHeader Authorization header with the token to revoke
+     * @param request Optional refresh token of the session
      * @return Success message
      */
     @PostMapping("/logout")
-    public ResponseEntity<MessageResponse> logout() {
+    public ResponseEntity<MessageResponse> logout(
+            @RequestHeader(value = "Authorization", required = false) String authorizationHeader,
+            @RequestBody(required = false) RefreshRequest request) {
         log.info("User logout");
+        String token = authorizationHeader != null && authorizationHeader.startsWith("Bearer ")
+                ? authorizationHeader.substring(7)
+                : null;
+        authService.logout(token, request != null ? request.getRefreshToken() : null);
         return ResponseEntity.ok(new MessageResponse("Logout successful"));
     }
 
@@ -1,25 +1,32 @@
 package com.edulink.controller;
 
 
+import com.edulink.dto.CursorPageDTO;
 import com.edulink.dto.document.*;
+import com.edulink.exception.BusinessException;
 import com.edulink.service.DocumentRatingService;
 import com.edulink.service.DocumentService;
-import jakarta.validation.constraints.Max;
-import jakarta.validation.constraints.Min;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.core.io.InputStreamResource;
 import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.ResourceRegion;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.ServletWebRequest;
 import org.springframework.web.multipart.MultipartFile;
 
 
+import java.io.IOException;
 import java.util.List;
 import java.util.Map;
 
@@ -33,16 +40,29 @@ public class DocumentController {
     private static final Logger logger = LoggerFactory.getLogger(DocumentController.class);
 
 
+    // Tomcat sendfile request attributes (see org.apache.catalina.Globals)
+    private static final String SENDFILE_SUPPORTED_ATTR = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME_ATTR = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START_ATTR = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END_ATTR = "org.apache.tomcat.sendfile.end";
+
+
     private final DocumentService documentService;
     private final DocumentRatingService ratingService;
 
 
     /**
-     * Get all approved documents
+     * Get approved documents, optionally of one uploader, one page at a time (newest first)
      */
     @GetMapping
-    public ResponseEntity<List<DocumentDTO>> getAllDocuments() {
-        List<DocumentDTO> documents = documentService.getAllDocuments();
+    public ResponseEntity<CursorPageDTO<DocumentDTO>> getAllDocuments(
+            @RequestParam(required = false) Long uploaderId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size
+    ) {
+        CursorPageDTO<DocumentDTO> documents = uploaderId != null
+                ? documentService.getDocumentsByUploader(uploaderId, cursor, size)
+                : documentService.getAllDocuments(cursor, size);
         return ResponseEntity.ok(documents);
     }
 
@@ -62,11 +82,15 @@ public class DocumentController {
 
 
     /**
-     * Get documents by course
+     * Get approved documents of a course, one page at a time (newest first)
      */
     @GetMapping("/course/{courseId}")
-    public ResponseEntity<List<DocumentDTO>> getDocumentsByCourse(@PathVariable Long courseId) {
-        List<DocumentDTO> documents = documentService.getDocumentsByCourse(courseId);
+    public ResponseEntity<CursorPageDTO<DocumentDTO>> getDocumentsByCourse(
+            @PathVariable Long courseId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size
+    ) {
+        CursorPageDTO<DocumentDTO> documents = documentService.getDocumentsByCourse(courseId, cursor, size);
         return ResponseEntity.ok(documents);
     }
 
@@ -100,49 +124,103 @@ public class DocumentController {
     }
 
 
+    /**
+     * Upload new document as the raw request body (no multipart), stored in one pass
+     */
+    @PostMapping(value = "/upload/stream", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<DocumentDTO> uploadDocumentStream(
+            @RequestParam("fileName") String fileName,
+            @RequestParam("docTitle") String docTitle,
+            @RequestParam("docDescription") String docDescription,
+            @RequestParam("courseId") Long courseId,
+            @RequestParam("documentType") String documentType,
+            @AuthenticationPrincipal UserDetails userDetails,
+            HttpServletRequest request
+    ) throws IOException {
+        logger.info("User {} streaming upload of document: {}", userDetails.getUsername(), docTitle);
+
+
+        DocumentDTO document = documentService.uploadDocumentStream(
+                request.getInputStream(),
+                request.getContentLengthLong(),
+                fileName,
+                docTitle,
+                docDescription,
+                courseId,
+                documentType,
+                userDetails.getUsername()
+        );
+
+
+        return ResponseEntity.status(HttpStatus.CREATED).body(document);
+    }
+
+
+    /**
+     * Processing state of an uploaded document (uploader or admin)
+     */
+    @GetMapping("/{documentId}/processing")
+    public ResponseEntity<DocumentProcessingDTO> getProcessingStatus(
+            @PathVariable Long documentId,
+            @AuthenticationPrincipal UserDetails userDetails
+    ) {
+        return ResponseEntity.ok(documentService.getProcessingStatus(documentId, userDetails.getUsername()));
+    }
+
+
     /**
      * Preview document (inline display)
      */
     @GetMapping("/{documentId}/preview")
-    public ResponseEntity<Resource> previewDocument(@PathVariable Long documentId) {
+    public ResponseEntity<Resource> previewDocument(@PathVariable Long documentId, HttpServletRequest request) {
         logger.info("Previewing document: {}", documentId);
 
         var fileData = documentService.previewDocument(documentId);
 
 
-        return ResponseEntity.ok()
-                .contentType(MediaType.parseMediaType(fileData.getContentType())) 
-                .header(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + fileData.getFileName() + "\"") 
-                .header(HttpHeaders.CACHE_CONTROL, "no-cache, no-store, must-revalidate") .header(HttpHeaders.PRAGMA, "no-cache") 
-                .header(HttpHeaders.EXPIRES, "0") .header("X-Frame-Options", "SAMEORIGIN") 
-                .contentLength(fileData.getFileSize()) 
-                .body(fileData.getResource());
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType(fileData.getContentType()));
+        headers.set(HttpHeaders.CONTENT_DISPOSITION, "inline; filename=\"" + fileData.getFileName() + "\"");
+        headers.set(HttpHeaders.CACHE_CONTROL, "no-cache, must-revalidate");
+        headers.set(HttpHeaders.PRAGMA, "no-cache");
+        headers.set(HttpHeaders.EXPIRES, "0");
+        headers.set("X-Frame-Options", "SAMEORIGIN");
 
+        return fileResponse(headers, fileData, requestedRegions(request, fileData), request);
     }
 
 
     /**
-     * Download document (attachment)
+     * Download document (attachment, resumable with Range requests)
      */
     @GetMapping("/{documentId}/download")
     public ResponseEntity<Resource> downloadDocument(
             @PathVariable Long documentId,
-            @AuthenticationPrincipal UserDetails userDetails
+            @AuthenticationPrincipal UserDetails userDetails,
+            HttpServletRequest request
     ) {
         logger.info("User {} downloading document: {}", userDetails.getUsername(), documentId);
 
 
         var fileData = documentService.downloadDocument(documentId, userDetails.getUsername());
+        List<ResourceRegion> regions = requestedRegions(request, fileData);
+
 
+        // A resumed download fetches the rest of the file in further ranges; only the
+        // response that starts at byte 0 counts as a download
+        if (regions == null || regions.stream().anyMatch(region -> region.getPosition() == 0)) {
+            documentService.recordDownload(documentId);
+        }
 
-        return ResponseEntity.ok()
-                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileData.getFileName() + "\"")
-                .contentType(MediaType.parseMediaType(fileData.getContentType()))
-                .contentLength(fileData.getFileSize())
-                .header("Cache-Control", "no-cache, no-store, must-revalidate")
-                .header("Pragma", "no-cache")
-                .header("Expires", "0")
-                .body(fileData.getResource());
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.set(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileData.getFileName() + "\"");
+        headers.setContentType(MediaType.parseMediaType(fileData.getContentType()));
+        headers.set(HttpHeaders.CACHE_CONTROL, "no-cache, must-revalidate");
+        headers.set(HttpHeaders.PRAGMA, "no-cache");
+        headers.set(HttpHeaders.EXPIRES, "0");
+
+        return fileResponse(headers, fileData, regions, request);
     }
 
 
@@ -199,7 +277,151 @@ public class DocumentController {
         documentService.deleteDocument(id, userDetails.getUsername());
         return ResponseEntity.ok(Map.of("message", "Document deleted successfully"));
     }
-}
 
 
+    // Helper methods
 
+
+    /**
+     * Resolve the Range header against the file. Returns null when the whole file
+     * should be sent (no Range, a malformed one, or an If-Range validator that no longer
+     * matches) and an empty list when none of the requested ranges can be satisfied.
+     */
+    private List<ResourceRegion> requestedRegions(HttpServletRequest request, DocumentFileDTO fileData) {
+        String range = request.getHeader(HttpHeaders.RANGE);
+        if (range == null || !ifRangeMatches(request, fileData)) {
+            return null;
+        }
+
+
+        List<HttpRange> ranges;
+        try {
+            ranges = HttpRange.parseRanges(range);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        if (ranges.isEmpty()) {
+            return null;
+        }
+
+
+        try {
+            return HttpRange.toResourceRegions(ranges, fileData.getResource());
+        } catch (IllegalArgumentException e) {
+            return List.of();
+        }
+    }
+
+
+    /**
+     * If-Range holds either a strong ETag or the Last-Modified date the client saw
+     */
+    private boolean ifRangeMatches(HttpServletRequest request, DocumentFileDTO fileData) {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(fileData.getEntityTag());
+        }
+
+
+        try {
+            return request.getDateHeader(HttpHeaders.IF_RANGE) == fileData.getLastModified() / 1000 * 1000;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+
+    /**
+     * Build the file response: 200 with the whole file, 206 with the requested ranges,
+     * or 416 when no requested range fits the file. The file is never loaded into the heap.
+     */
+    private ResponseEntity<Resource> fileResponse(
+            HttpHeaders headers,
+            DocumentFileDTO fileData,
+            List<ResourceRegion> regions,
+            HttpServletRequest request
+    ) {
+        long fileSize = fileData.getFileSize();
+        headers.setETag(fileData.getEntityTag());
+        headers.setLastModified(fileData.getLastModified());
+        headers.set(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+
+        // Conditional headers come before Range. Spring MVC answers a matching one itself
+        // with a response that has no body, so nothing may be handed to sendfile
+        if (new ServletWebRequest(request).checkNotModified(fileData.getEntityTag(), fileData.getLastModified())) {
+            return ResponseEntity.ok().headers(headers).build();
+        }
+
+
+        if (regions == null) {
+            headers.setContentLength(fileSize);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok().headers(headers);
+            if (sendfile(request, fileData, 0, fileSize)) {
+                return response.build();
+            }
+            // Spring MVC applies any Range header to a Resource body by itself, so when
+            // the range was ignored on purpose the file goes out as a plain stream
+            if (request.getHeader(HttpHeaders.RANGE) != null) {
+                return response.body(openStream(fileData));
+            }
+            return response.body(fileData.getResource());
+        }
+
+
+        if (regions.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE)
+                    .header(HttpHeaders.CONTENT_RANGE, "bytes */" + fileSize)
+                    .build();
+        }
+
+
+        if (regions.size() == 1) {
+            ResourceRegion region = regions.get(0);
+            long start = region.getPosition();
+            long end = start + region.getCount();
+            if (sendfile(request, fileData, start, end)) {
+                return ResponseEntity.status(HttpStatus.PARTIAL_CONTENT)
+                        .headers(headers)
+                        .header(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + (end - 1) + "/" + fileSize)
+                        .contentLength(region.getCount())
+                        .build();
+            }
+        }
+
+
+        // Spring MVC turns a Resource body into the same regions from the Range header and
+        // writes the 206 itself, as multipart/byteranges when several ranges were asked for
+        return ResponseEntity.ok().headers(headers).body(fileData.getResource());
+    }
+
+
+    /**
+     * When the connector supports sendfile, Tomcat copies [start, end) of the file to
+     * the socket itself after the handler returns (zero-copy). Spring MVC has no hook
+     * for this, so the request attributes are set here. Tomcat sends the bytes whenever
+     * they are set, so only a GET that answers with the file may set them, not a HEAD.
+     */
+    private boolean sendfile(HttpServletRequest request, DocumentFileDTO fileData, long start, long end) {
+        if (!HttpMethod.GET.matches(request.getMethod())
+                || !Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED_ATTR))) {
+            return false;
+        }
+        request.setAttribute(SENDFILE_FILENAME_ATTR, fileData.getPath().toAbsolutePath().toString());
+        request.setAttribute(SENDFILE_START_ATTR, start);
+        request.setAttribute(SENDFILE_END_ATTR, end);
+        return true;
+    }
+
+
+    private InputStreamResource openStream(DocumentFileDTO fileData) {
+        try {
+            return new InputStreamResource(fileData.getResource().getInputStream());
+        } catch (IOException e) {
+            throw BusinessException.notFound("File not found: " + fileData.getFileName());
+        }
+    }
+}
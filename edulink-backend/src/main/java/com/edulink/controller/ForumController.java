@@ -2,6 +2,7 @@ package com.edulink.controller;
 
 import com.edulink.dto.forum.*;
 import com.edulink.service.ForumService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
@@ -40,8 +41,17 @@ public class ForumController {
      * Get thread by ID with all replies
      */
     @GetMapping("/threads/{id}")
-    public ResponseEntity<ForumThreadDetailDTO> getThreadById(@PathVariable Long id) {
-        ForumThreadDetailDTO thread = forumService.getThreadById(id);
+    public ResponseEntity<ForumThreadDetailDTO> getThreadById(
+            @PathVariable Long id,
+            @AuthenticationPrincipal UserDetails userDetails,
+            HttpServletRequest request
+    ) {
+        // Identifies the viewer for unique-viewer counting; anonymous readers by address
+        String viewerKey = userDetails != null
+                ? "user:" + userDetails.getUsername()
+                : "ip:" + request.getRemoteAddr();
+
+        ForumThreadDetailDTO thread = forumService.getThreadById(id, viewerKey);
         return ResponseEntity.ok(thread);
     }
 
@@ -0,0 +1,104 @@
+package com.edulink.controller;
+
+import com.edulink.dto.document.DocumentDTO;
+import com.edulink.dto.document.UploadSessionCompleteRequest;
+import com.edulink.dto.document.UploadSessionCreateRequest;
+import com.edulink.dto.document.UploadSessionDTO;
+import com.edulink.exception.BusinessException;
+import com.edulink.service.UploadSessionService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Resumable uploads for large documents: create a session, PUT its chunks (any order,
+ * in parallel, retried one by one), then complete it with the file's SHA-256
+ */
+@RestController
+@RequestMapping("/api/documents/upload-sessions")
+@RequiredArgsConstructor
+public class UploadSessionController {
+
+    private static final Logger logger = LoggerFactory.getLogger(UploadSessionController.class);
+
+    private final UploadSessionService uploadSessionService;
+
+    /**
+     * Start an upload
+     */
+    @PostMapping
+    public ResponseEntity<UploadSessionDTO> createSession(
+            @Valid @RequestBody UploadSessionCreateRequest request,
+            @AuthenticationPrincipal UserDetails userDetails
+    ) {
+        UploadSessionDTO session = uploadSessionService.createSession(request, userDetails.getUsername());
+        return ResponseEntity.status(HttpStatus.CREATED).body(session);
+    }
+
+    /**
+     * Session state, to find the chunks still to send after an interruption
+     */
+    @GetMapping("/{sessionId}")
+    public ResponseEntity<UploadSessionDTO> getSession(
+            @PathVariable String sessionId,
+            @AuthenticationPrincipal UserDetails userDetails
+    ) {
+        return ResponseEntity.ok(uploadSessionService.getSession(sessionId, userDetails.getUsername()));
+    }
+
+    /**
+     * Upload one chunk as the raw request body
+     */
+    @PutMapping(value = "/{sessionId}/chunks/{chunkIndex}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<UploadSessionDTO> uploadChunk(
+            @PathVariable String sessionId,
+            @PathVariable int chunkIndex,
+            @AuthenticationPrincipal UserDetails userDetails,
+            HttpServletRequest request
+    ) {
+        try {
+            UploadSessionDTO session = uploadSessionService.writeChunk(
+                    sessionId, chunkIndex, request.getInputStream(), request.getContentLengthLong(), userDetails.getUsername());
+            return ResponseEntity.ok(session);
+        } catch (IOException e) {
+            logger.debug("Chunk {} of upload session {} not received: {}", chunkIndex, sessionId, e.getMessage());
+            throw new BusinessException("Failed to read chunk " + chunkIndex);
+        }
+    }
+
+    /**
+     * Finish the upload and create the document
+     */
+    @PostMapping("/{sessionId}/complete")
+    public ResponseEntity<DocumentDTO> completeSession(
+            @PathVariable String sessionId,
+            @Valid @RequestBody UploadSessionCompleteRequest request,
+            @AuthenticationPrincipal UserDetails userDetails
+    ) {
+        DocumentDTO document = uploadSessionService.completeSession(sessionId, request.getSha256(), userDetails.getUsername());
+        return ResponseEntity.status(HttpStatus.CREATED).body(document);
+    }
+
+    /**
+     * Abandon the upload
+     */
+    @DeleteMapping("/{sessionId}")
+    public ResponseEntity<Map<String, String>> abortSession(
+            @PathVariable String sessionId,
+            @AuthenticationPrincipal UserDetails userDetails
+    ) {
+        uploadSessionService.abortSession(sessionId, userDetails.getUsername());
+        return ResponseEntity.ok(Map.of("message", "Upload cancelled"));
+    }
+}
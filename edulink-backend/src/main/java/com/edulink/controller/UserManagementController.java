@@ -126,6 +126,19 @@ public class UserManagementController {
         List<UserDTO> users = userManagementService.searchUsers(query, userDetails.getUsername());
         return ResponseEntity.ok(users);
     }
-}
-
 
+    /**
+     * Recompute student reputation from document ratings (admin only)
+     */
+    @PostMapping("/reputation/recompute")
+    public ResponseEntity<Map<String, Object>> recomputeReputation(
+            @AuthenticationPrincipal UserDetails userDetails
+    ) {
+        logger.info("Admin {} recomputing student reputation", userDetails.getUsername());
+        int updated = userManagementService.recomputeReputation(userDetails.getUsername());
+        return ResponseEntity.ok(Map.of(
+                "message", "Student reputation recomputed",
+                "studentsUpdated", updated
+        ));
+    }
+}
@@ -13,6 +13,7 @@ import lombok.Builder;
 @AllArgsConstructor
 public class AuthResponse {
     private String token;
+    private String refreshToken;
     private String username;
     private String email;
     private String role;
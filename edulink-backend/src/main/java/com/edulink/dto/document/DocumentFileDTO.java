@@ -7,6 +7,8 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.springframework.core.io.Resource;
 
+import java.nio.file.Path;
+
 /**
  * Document File DTO
  */
@@ -17,8 +19,11 @@ import org.springframework.core.io.Resource;
 @AllArgsConstructor
 public class DocumentFileDTO {
     private Resource resource;
+    private Path path; // file on disk, for zero-copy transfer
     private String fileName;
     private String contentType;
     private long fileSize;
+    private long lastModified;
+    private String entityTag; // strong ETag, used for If-None-Match and If-Range
     private boolean isDownload;
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+package com.edulink.dto.document;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Post-upload processing state: overall status and the status of each stage
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DocumentProcessingDTO {
+    private Long documentId;
+    private String status; // PENDING, RUNNING, DONE or FAILED
+    private String contentTypeStatus;
+    private String checksumStatus;
+    private String contentType;
+    private String error;
+    private LocalDateTime processedAt;
+}
@@ -7,6 +7,9 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 
+import java.util.Map;
+
+
 @Data
 @Builder
 @NoArgsConstructor
@@ -15,6 +18,7 @@ public class DocumentRatingDTO {
     private Double averageRating;
     private Long totalRatings;
     private Integer userRating;
+    private Map<Integer, Long> ratingHistogram; // stars -> number of ratings
 }
 
 
@@ -0,0 +1,22 @@
+package com.edulink.dto.document;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/***
+ * Upload Session Complete Request DTO
+ */
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadSessionCompleteRequest {
+
+    // SHA-256 of the whole file as the client computed it, hex encoded
+    @NotBlank(message = "Checksum is required")
+    @Pattern(regexp = "[0-9a-fA-F]{64}", message = "Checksum must be a hex SHA-256")
+    private String sha256;
+}
@@ -0,0 +1,36 @@
+package com.edulink.dto.document;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/***
+ * Upload Session Create Request DTO: the document fields of an upload, sent before its bytes
+ */
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadSessionCreateRequest {
+
+    @NotBlank(message = "Title is required")
+    private String docTitle;
+
+    private String docDescription;
+
+    @NotNull(message = "Course ID is required")
+    private Long courseId;
+
+    @NotBlank(message = "Document type is required")
+    private String documentType;
+
+    @NotBlank(message = "File name is required")
+    private String fileName;
+
+    @NotNull(message = "File size is required")
+    @Positive(message = "File size must be positive")
+    private Long totalSize;
+}
@@ -0,0 +1,25 @@
+package com.edulink.dto.document;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Upload session state: enough for a client to resume by sending the missing chunks
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadSessionDTO {
+    private String sessionId;
+    private long totalSize;
+    private int chunkSize;
+    private int chunkCount;
+    private List<Integer> receivedChunks;
+    private LocalDateTime expiresAt;
+}
@@ -24,6 +24,7 @@ public class ForumThreadDTO {
     private Integer replyCount;
     private Boolean hasTeacherResponse;
     private LocalDateTime createdAt;
+    private LocalDateTime lastActivityAt;
     
     // Author info
     private Long authorId;
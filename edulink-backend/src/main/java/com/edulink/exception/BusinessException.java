@@ -9,20 +9,31 @@ public class BusinessException extends RuntimeException {
     
     private final HttpStatus httpStatus;
     
+    // Sent as Retry-After when set (overload responses)
+    private final Integer retryAfterSeconds;
+    
     public BusinessException(String message) {
-        super(message);
-        this.httpStatus = HttpStatus.BAD_REQUEST;
+        this(message, HttpStatus.BAD_REQUEST);
     }
     
     public BusinessException(String message, HttpStatus httpStatus) {
+        this(message, httpStatus, null);
+    }
+    
+    public BusinessException(String message, HttpStatus httpStatus, Integer retryAfterSeconds) {
         super(message);
         this.httpStatus = httpStatus;
+        this.retryAfterSeconds = retryAfterSeconds;
     }
     
     public HttpStatus getHttpStatus() {
         return httpStatus;
     }
     
+    public Integer getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+    
     // Helper methods for common cases
     public static BusinessException notFound(String message) {
         return new BusinessException(message, HttpStatus.NOT_FOUND);
@@ -39,6 +50,10 @@ public class BusinessException extends RuntimeException {
     public static BusinessException unauthorized(String message) {
         return new BusinessException(message, HttpStatus.UNAUTHORIZED);
     }
+    
+    public static BusinessException serviceUnavailable(String message, int retryAfterSeconds) {
+        return new BusinessException(message, HttpStatus.SERVICE_UNAVAILABLE, retryAfterSeconds);
+    }
 }
 
 
@@ -4,11 +4,14 @@ import com.edulink.model.enums.ActivityType;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "activities")
+@NamedEntityGraph(name = "Activity.organizer", attributeNodes = @NamedAttributeNode("organizer"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -24,8 +27,10 @@ public class Activity {
     @Column(columnDefinition = "TEXT")
     private String description;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "organizer_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private User organizer;
     
     @Enumerated(EnumType.STRING)
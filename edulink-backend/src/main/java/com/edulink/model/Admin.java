@@ -1,12 +1,12 @@
 package com.edulink.model;
 
+import jakarta.persistence.DiscriminatorValue;
 import jakarta.persistence.Entity;
-import jakarta.persistence.Table;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 
 @Entity
-@Table(name = "admin")
+@DiscriminatorValue("ADMIN")
 @Data
 @EqualsAndHashCode(callSuper = true)
 public class Admin extends User {
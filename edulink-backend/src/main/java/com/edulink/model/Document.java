@@ -1,13 +1,21 @@
 package com.edulink.model;
 
+import com.edulink.model.enums.ProcessingStatus;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "documents")
+@NamedEntityGraph(name = "Document.uploaderAndCourse",
+                  attributeNodes = {@NamedAttributeNode("uploader"), @NamedAttributeNode("course")})
+@DynamicUpdate // download_count and the rating aggregates are updated in place; never write back stale copies
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -17,12 +25,16 @@ public class Document {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long documentId;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "uploader_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private User uploader;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "course_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Course course;
     
     @Column(nullable = false)
@@ -42,6 +54,63 @@ public class Document {
     private String fileUrl;
 
     private String documentType;
+
+    // Rating aggregates, maintained incrementally by DocumentRatingService
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long ratingSum = 0L;
+
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long ratingCount = 0L;
+
+    // Rating histogram (how many 1..5 star ratings)
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long oneStarCount = 0L;
+
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long twoStarCount = 0L;
+
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long threeStarCount = 0L;
+
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long fourStarCount = 0L;
+
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long fiveStarCount = 0L;
+
+    // Post-upload processing, written only by DocumentProcessingPipeline (never updated
+    // from the entity, so a concurrent save cannot revert a stage)
+    @Enumerated(EnumType.STRING)
+    @ColumnDefault("'PENDING'")
+    @Column(nullable = false, length = 20, updatable = false)
+    private ProcessingStatus processingStatus = ProcessingStatus.PENDING;
+
+    @Enumerated(EnumType.STRING)
+    @ColumnDefault("'PENDING'")
+    @Column(nullable = false, length = 20, updatable = false)
+    private ProcessingStatus contentTypeStatus = ProcessingStatus.PENDING;
+
+    @Enumerated(EnumType.STRING)
+    @ColumnDefault("'PENDING'")
+    @Column(nullable = false, length = 20, updatable = false)
+    private ProcessingStatus checksumStatus = ProcessingStatus.PENDING;
+
+    // Detected from the file's leading bytes
+    @Column(updatable = false)
+    private String contentType;
+
+    @Column(length = 500, updatable = false)
+    private String processingError;
+
+    @Column(updatable = false)
+    private LocalDateTime processedAt;
     
     @PrePersist
     protected void onCreate() {
@@ -51,4 +120,48 @@ public class Document {
     public void setDocumentType(String documentType) {
         this.documentType = documentType;
     }
+
+    @Transient
+    public double getAverageRating() {
+        return ratingCount > 0 ? (double) ratingSum / ratingCount : 0.0;
+    }
+
+    /**
+     * Apply a new rating, or a change from previousRating to newRating, to the aggregates
+     */
+    public void applyRating(Integer previousRating, int newRating) {
+        if (previousRating != null) {
+            addRatings(previousRating, -1);
+        }
+        addRatings(newRating, 1);
+    }
+
+    /**
+     * Reset the aggregates before rebuilding them from the ratings table
+     */
+    public void clearRatings() {
+        ratingSum = 0L;
+        ratingCount = 0L;
+        oneStarCount = 0L;
+        twoStarCount = 0L;
+        threeStarCount = 0L;
+        fourStarCount = 0L;
+        fiveStarCount = 0L;
+    }
+
+    /**
+     * Add (or with a negative count, remove) ratings of the given stars
+     */
+    public void addRatings(int stars, long count) {
+        switch (stars) {
+            case 1 -> oneStarCount += count;
+            case 2 -> twoStarCount += count;
+            case 3 -> threeStarCount += count;
+            case 4 -> fourStarCount += count;
+            case 5 -> fiveStarCount += count;
+            default -> throw new IllegalArgumentException("Rating must be between 1 and 5");
+        }
+        ratingSum += stars * count;
+        ratingCount += count;
+    }
 }
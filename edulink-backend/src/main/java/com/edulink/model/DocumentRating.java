@@ -3,7 +3,9 @@ package com.edulink.model;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import java.time.LocalDateTime;
 
 @Entity
@@ -18,12 +20,16 @@ public class DocumentRating {
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long ratingId;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "document_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Document document;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private User user;
     
     @Column(nullable = false)
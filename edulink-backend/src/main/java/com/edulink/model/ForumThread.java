@@ -4,7 +4,11 @@ import com.edulink.model.enums.ThreadStatus;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
@@ -12,6 +16,9 @@ import java.util.List;
 
 @Entity
 @Table(name = "forum_threads")
+@NamedEntityGraph(name = "ForumThread.authorAndCourse",
+                  attributeNodes = {@NamedAttributeNode("author"), @NamedAttributeNode("course")})
+@DynamicUpdate // views and the reply summary are updated in place; never write back stale copies
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -27,12 +34,16 @@ public class ForumThread {
     @Column(columnDefinition = "TEXT", nullable = false)
     private String content;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "author_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private User author;
     
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "course_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private Course course;
     
     @Enumerated(EnumType.STRING)
@@ -45,20 +56,30 @@ public class ForumThread {
     @Column(nullable = false)
     private LocalDateTime createdAt;
     
+    // Reply summary, maintained by ForumService when replies are created or deleted
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Integer replyCount = 0;
+    
+    @ColumnDefault("false")
+    @Column(nullable = false)
+    private Boolean hasTeacherResponse = false;
+    
+    @Column(nullable = false)
+    private LocalDateTime lastActivityAt;
+    
     @OneToMany(mappedBy = "thread", cascade = CascadeType.ALL, orphanRemoval = true)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
     private List<ForumReply> replies = new ArrayList<>();
     
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
+        lastActivityAt = createdAt;
         if (views == null) views = 0;
         if (status == null) status = ThreadStatus.OPEN;
-    }
-    
-    // Helper method to check if has teacher response
-    @Transient
-    public boolean hasTeacherResponse() {
-        return replies.stream()
-                .anyMatch(reply -> reply.getUser().getRole().name().equals("TEACHER"));
+        if (replyCount == null) replyCount = 0;
+        if (hasTeacherResponse == null) hasTeacherResponse = false;
     }
 }
\ No newline at end of file
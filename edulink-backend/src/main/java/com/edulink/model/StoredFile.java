@@ -0,0 +1,34 @@
+package com.edulink.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+/**
+ * A file in the upload store, named by its content: SHA-256 of the bytes plus the
+ * extension. Shared by every document with the same content; refCount counts them.
+ * Maintained by FileStorageService through native statements (StoredFileRepository)
+ */
+@Entity
+@Table(name = "stored_files")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StoredFile {
+
+    // <sha-256 hex><.extension>, also the file name in the upload store
+    @Id
+    @Column(length = 80)
+    private String contentKey;
+
+    @Column(nullable = false)
+    private Long sizeBytes;
+
+    @Column(nullable = false)
+    private Integer refCount;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+}
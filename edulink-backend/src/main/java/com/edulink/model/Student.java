@@ -5,11 +5,11 @@ import lombok.Data;
 import lombok.EqualsAndHashCode;
 
 @Entity
-@Table(name = "students")
+@DiscriminatorValue("STUDENT")
 @Data
 @EqualsAndHashCode(callSuper = true)
 public class Student extends User {
     
-    @Column(nullable = false)
+    // Null for other roles; the users table checks it is set for every student
     private Double reputationPoints = 0.0;
 }
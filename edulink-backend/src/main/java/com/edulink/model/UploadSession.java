@@ -0,0 +1,72 @@
+package com.edulink.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import java.time.LocalDateTime;
+
+/**
+ * A resumable document upload in progress. Its bytes go to a part file at chunk
+ * offsets; the received chunks are rows of upload_session_chunks (UploadSessionRepository)
+ */
+@Entity
+@Table(name = "upload_sessions")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UploadSession {
+
+    // Random UUID, also the name of the part file
+    @Id
+    @Column(length = 36)
+    private String sessionId;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "uploader_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private User uploader;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "course_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private Course course;
+
+    @Column(nullable = false)
+    private String docTitle;
+
+    @Column(columnDefinition = "TEXT")
+    private String docDescription;
+
+    private String documentType;
+
+    @Column(nullable = false)
+    private String originalFilename;
+
+    @Column(nullable = false)
+    private Long totalSize;
+
+    @Column(nullable = false)
+    private Integer chunkSize;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(nullable = false)
+    private LocalDateTime expiresAt;
+
+    public int getChunkCount() {
+        return (int) ((totalSize + chunkSize - 1) / chunkSize);
+    }
+
+    /**
+     * Bytes expected in the given chunk; only the last one can be shorter
+     */
+    public long getChunkLength(int chunkIndex) {
+        return Math.min(chunkSize, totalSize - (long) chunkIndex * chunkSize);
+    }
+}
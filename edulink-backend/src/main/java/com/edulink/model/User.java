@@ -12,7 +12,8 @@ import java.time.LocalDateTime;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Inheritance(strategy = InheritanceType.JOINED)
+@Inheritance(strategy = InheritanceType.SINGLE_TABLE)
+@DiscriminatorColumn(name = "role", discriminatorType = DiscriminatorType.STRING)
 public class User {
     
     @Id
@@ -28,13 +29,17 @@ public class User {
     @Column(nullable = false)
     private String password;
     
+    // Also the discriminator: written from the entity type, changed with UserRepository.changeRole
     @Enumerated(EnumType.STRING)
-    @Column(nullable = false)
+    @Column(nullable = false, insertable = false, updatable = false)
     private UserRole role;
     
     @Column(nullable = false)
     private LocalDateTime createdAt;
     
+    // Tokens issued up to this instant no longer carry trusted claims (role or username change)
+    private LocalDateTime tokensValidAfter;
+    
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
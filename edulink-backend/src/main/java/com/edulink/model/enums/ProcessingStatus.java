@@ -0,0 +1,9 @@
+package com.edulink.model.enums;
+
+public enum ProcessingStatus {
+    PENDING,
+    RUNNING,
+    DONE,
+    FAILED,
+    SKIPPED
+}
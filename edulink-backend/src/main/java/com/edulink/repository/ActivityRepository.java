@@ -1,12 +1,32 @@
 package com.edulink.repository;
 
+import com.edulink.dto.activity.ActivityDTO;
 import com.edulink.model.Activity;
 import com.edulink.model.enums.ActivityType;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ActivityRepository extends JpaRepository<Activity, Long> {
     List<Activity> findByActivityType(ActivityType activityType);
+
+    /**
+     * Activity with its organizer, for the activity DTO
+     */
+    @EntityGraph("Activity.organizer")
+    Optional<Activity> findWithOrganizerByActivityId(Long activityId);
+
+    /**
+     * Activity listing: one flat statement with the organizer columns, in date order
+     */
+    @Query("SELECT new com.edulink.dto.activity.ActivityDTO(" +
+           "a.activityId, a.title, a.description, CAST(a.activityType AS String), a.activityDate, a.location, " +
+           "a.attendance, o.userId, o.username, CAST(o.role AS String)) " +
+           "FROM Activity a JOIN a.organizer o " +
+           "ORDER BY a.activityDate ASC, a.activityId ASC")
+    List<ActivityDTO> findActivitySummaries();
 }
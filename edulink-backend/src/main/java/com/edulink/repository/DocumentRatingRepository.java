@@ -15,10 +15,11 @@ public interface DocumentRatingRepository extends JpaRepository<DocumentRating,
     
     List<DocumentRating> findByDocumentDocumentId(Long documentId);
     
-    @Query("SELECT AVG(r.rating) FROM DocumentRating r WHERE r.document.documentId = :documentId")
-    Double getAverageRatingForDocument(Long documentId);
-    
-    @Query("SELECT COUNT(r) FROM DocumentRating r WHERE r.document.documentId = :documentId")
-    Long countRatingsForDocument(Long documentId);
+    /**
+     * Rating histogram rows: [stars, count]
+     */
+    @Query("SELECT r.rating, COUNT(r) FROM DocumentRating r WHERE r.document.documentId = :documentId " +
+           "GROUP BY r.rating")
+    List<Object[]> countRatingsByStars(Long documentId);
 }
 
@@ -1,13 +1,22 @@
 package com.edulink.repository;
 
+import com.edulink.dto.document.DocumentDTO;
 import com.edulink.model.Document;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface DocumentRepository extends JpaRepository<Document, Long> {
+    @EntityGraph(attributePaths = "uploader")
     List<Document> findByCourse_CourseId(Long courseId);
     List<Document> findByIsApproved(Boolean isApproved);
     long countByUploaderUserId(Long userId);
@@ -18,5 +27,118 @@ public interface DocumentRepository extends JpaRepository<Document, Long> {
     "FROM Document d WHERE d.documentId = :documentId AND d.isApproved = true") 
     boolean existsByIdAndApproved(Long documentId);
 
+    /**
+     * Document with its uploader and course, for detail views and DTOs that show both
+     */
+    @EntityGraph("Document.uploaderAndCourse")
+    Optional<Document> findWithUploaderAndCourseByDocumentId(Long documentId);
 
+    /**
+     * Listing projections: one statement per page, rating stats read from the stored aggregates.
+     * Pages are keyset-paginated on (uploadedAt, documentId), newest first; the *Before variants
+     * continue after the last row of the previous page.
+     */
+    @Query("SELECT new com.edulink.dto.document.DocumentDTO(" +
+           "d.documentId, d.docTitle, d.docDescription, d.documentType, d.uploadedAt, d.isApproved, d.downloadCount, " +
+           "COALESCE(CAST(d.ratingSum AS Double) / NULLIF(d.ratingCount, 0), 0.0), d.ratingCount, " +
+           "c.courseId, c.courseName, u.userId, u.username) " +
+           "FROM Document d JOIN d.course c JOIN d.uploader u " +
+           "WHERE d.isApproved = true " +
+           "ORDER BY d.uploadedAt DESC, d.documentId DESC")
+    List<DocumentDTO> findApprovedDocumentSummaries(Limit limit);
+
+    @Query("SELECT new com.edulink.dto.document.DocumentDTO(" +
+           "d.documentId, d.docTitle, d.docDescription, d.documentType, d.uploadedAt, d.isApproved, d.downloadCount, " +
+           "COALESCE(CAST(d.ratingSum AS Double) / NULLIF(d.ratingCount, 0), 0.0), d.ratingCount, " +
+           "c.courseId, c.courseName, u.userId, u.username) " +
+           "FROM Document d JOIN d.course c JOIN d.uploader u " +
+           "WHERE d.isApproved = true " +
+           "AND (d.uploadedAt < :uploadedAt OR (d.uploadedAt = :uploadedAt AND d.documentId < :documentId)) " +
+           "ORDER BY d.uploadedAt DESC, d.documentId DESC")
+    List<DocumentDTO> findApprovedDocumentSummariesBefore(@Param("uploadedAt") LocalDateTime uploadedAt,
+                                                          @Param("documentId") Long documentId,
+                                                          Limit limit);
+
+    @Query("SELECT new com.edulink.dto.document.DocumentDTO(" +
+           "d.documentId, d.docTitle, d.docDescription, d.documentType, d.uploadedAt, d.isApproved, d.downloadCount, " +
+           "COALESCE(CAST(d.ratingSum AS Double) / NULLIF(d.ratingCount, 0), 0.0), d.ratingCount, " +
+           "c.courseId, c.courseName, u.userId, u.username) " +
+           "FROM Document d JOIN d.course c JOIN d.uploader u " +
+           "WHERE c.courseId = :courseId AND d.isApproved = true " +
+           "ORDER BY d.uploadedAt DESC, d.documentId DESC")
+    List<DocumentDTO> findApprovedDocumentSummariesByCourse(@Param("courseId") Long courseId, Limit limit);
+
+    @Query("SELECT new com.edulink.dto.document.DocumentDTO(" +
+           "d.documentId, d.docTitle, d.docDescription, d.documentType, d.uploadedAt, d.isApproved, d.downloadCount, " +
+           "COALESCE(CAST(d.ratingSum AS Double) / NULLIF(d.ratingCount, 0), 0.0), d.ratingCount, " +
+           "c.courseId, c.courseName, u.userId, u.username) " +
+           "FROM Document d JOIN d.course c JOIN d.uploader u " +
+           "WHERE c.courseId = :courseId AND d.isApproved = true " +
+           "AND (d.uploadedAt < :uploadedAt OR (d.uploadedAt = :uploadedAt AND d.documentId < :documentId)) " +
+           "ORDER BY d.uploadedAt DESC, d.documentId DESC")
+    List<DocumentDTO> findApprovedDocumentSummariesByCourseBefore(@Param("courseId") Long courseId,
+                                                                  @Param("uploadedAt") LocalDateTime uploadedAt,
+                                                                  @Param("documentId") Long documentId,
+                                                                  Limit limit);
+
+    @Query("SELECT new com.edulink.dto.document.DocumentDTO(" +
+           "d.documentId, d.docTitle, d.docDescription, d.documentType, d.uploadedAt, d.isApproved, d.downloadCount, " +
+           "COALESCE(CAST(d.ratingSum AS Double) / NULLIF(d.ratingCount, 0), 0.0), d.ratingCount, " +
+           "c.courseId, c.courseName, u.userId, u.username) " +
+           "FROM Document d JOIN d.course c JOIN d.uploader u " +
+           "WHERE u.userId = :uploaderId AND d.isApproved = true " +
+           "ORDER BY d.uploadedAt DESC, d.documentId DESC")
+    List<DocumentDTO> findApprovedDocumentSummariesByUploader(@Param("uploaderId") Long uploaderId, Limit limit);
+
+    @Query("SELECT new com.edulink.dto.document.DocumentDTO(" +
+           "d.documentId, d.docTitle, d.docDescription, d.documentType, d.uploadedAt, d.isApproved, d.downloadCount, " +
+           "COALESCE(CAST(d.ratingSum AS Double) / NULLIF(d.ratingCount, 0), 0.0), d.ratingCount, " +
+           "c.courseId, c.courseName, u.userId, u.username) " +
+           "FROM Document d JOIN d.course c JOIN d.uploader u " +
+           "WHERE u.userId = :uploaderId AND d.isApproved = true " +
+           "AND (d.uploadedAt < :uploadedAt OR (d.uploadedAt = :uploadedAt AND d.documentId < :documentId)) " +
+           "ORDER BY d.uploadedAt DESC, d.documentId DESC")
+    List<DocumentDTO> findApprovedDocumentSummariesByUploaderBefore(@Param("uploaderId") Long uploaderId,
+                                                                    @Param("uploadedAt") LocalDateTime uploadedAt,
+                                                                    @Param("documentId") Long documentId,
+                                                                    Limit limit);
+
+    /**
+     * Admin validation listing: every document, pending first, newest first within each group
+     */
+    @Query("SELECT new com.edulink.dto.document.DocumentDTO(" +
+           "d.documentId, d.docTitle, d.docDescription, d.documentType, d.uploadedAt, d.isApproved, d.downloadCount, " +
+           "COALESCE(CAST(d.ratingSum AS Double) / NULLIF(d.ratingCount, 0), 0.0), d.ratingCount, " +
+           "c.courseId, c.courseName, u.userId, u.username) " +
+           "FROM Document d JOIN d.course c JOIN d.uploader u " +
+           "ORDER BY d.isApproved ASC, d.uploadedAt DESC, d.documentId DESC")
+    List<DocumentDTO> findDocumentSummariesForValidation();
+
+    /**
+     * Lock the document row so rating aggregates can be updated atomically
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT d FROM Document d WHERE d.documentId = :documentId")
+    Optional<Document> findByIdForUpdate(@Param("documentId") Long documentId);
+
+    /**
+     * Documents whose stored rating aggregates no longer match document_ratings
+     */
+    @Query(value = "SELECT d.document_id FROM documents d " +
+           "LEFT JOIN (SELECT r.document_id, SUM(r.rating) AS rating_sum, COUNT(*) AS rating_count, " +
+           "SUM(CASE WHEN r.rating = 1 THEN 1 ELSE 0 END) AS one_star, " +
+           "SUM(CASE WHEN r.rating = 2 THEN 1 ELSE 0 END) AS two_star, " +
+           "SUM(CASE WHEN r.rating = 3 THEN 1 ELSE 0 END) AS three_star, " +
+           "SUM(CASE WHEN r.rating = 4 THEN 1 ELSE 0 END) AS four_star, " +
+           "SUM(CASE WHEN r.rating = 5 THEN 1 ELSE 0 END) AS five_star " +
+           "FROM document_ratings r GROUP BY r.document_id) s ON s.document_id = d.document_id " +
+           "WHERE d.rating_sum <> COALESCE(s.rating_sum, 0) " +
+           "OR d.rating_count <> COALESCE(s.rating_count, 0) " +
+           "OR d.one_star_count <> COALESCE(s.one_star, 0) " +
+           "OR d.two_star_count <> COALESCE(s.two_star, 0) " +
+           "OR d.three_star_count <> COALESCE(s.three_star, 0) " +
+           "OR d.four_star_count <> COALESCE(s.four_star, 0) " +
+           "OR d.five_star_count <> COALESCE(s.five_star, 0)",
+           nativeQuery = true)
+    List<Long> findDocumentIdsWithRatingDrift();
 }
@@ -2,6 +2,8 @@ package com.edulink.repository;
 
 import com.edulink.model.ForumReply;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -9,4 +11,12 @@ import java.util.List;
 @Repository
 public interface ForumReplyRepository extends JpaRepository<ForumReply, Long> {
     List<ForumReply> findByThreadThreadId(Long threadId);
-}
\ No newline at end of file
+
+    /**
+     * Replies of a thread with their authors, oldest first
+     */
+    @Query("SELECT r FROM ForumReply r JOIN FETCH r.user " +
+           "WHERE r.thread.threadId = :threadId " +
+           "ORDER BY r.createdAt ASC, r.replyId ASC")
+    List<ForumReply> findByThreadIdWithUser(@Param("threadId") Long threadId);
+}
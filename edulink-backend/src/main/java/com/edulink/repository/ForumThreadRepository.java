@@ -1,18 +1,68 @@
 package com.edulink.repository;
 
+import com.edulink.dto.forum.ForumThreadDTO;
 import com.edulink.model.ForumThread;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ForumThreadRepository extends JpaRepository<ForumThread, Long> {
     List<ForumThread> findByCourse_CourseId(Long courseId);
     
-    @Query("SELECT COUNT(t) FROM ForumThread t WHERE t.course.courseId = :courseId " +
-           "AND NOT EXISTS (SELECT 1 FROM ForumReply r WHERE r.thread = t AND r.user.role = 'TEACHER')")
+    @Query("SELECT COUNT(t) FROM ForumThread t WHERE t.course.courseId = :courseId AND t.hasTeacherResponse = false")
     long countByCourseAndUnanswered(@Param("courseId") Long courseId);
-}
\ No newline at end of file
+
+    /**
+     * Thread with its author and course, for the thread DTOs
+     */
+    @EntityGraph("ForumThread.authorAndCourse")
+    Optional<ForumThread> findWithAuthorAndCourseByThreadId(Long threadId);
+
+    /**
+     * Thread listings: one flat statement, reply stats read from the summary columns,
+     * most recently active first.
+     */
+    @Query("SELECT new com.edulink.dto.forum.ForumThreadDTO(" +
+           "t.threadId, t.title, t.content, CAST(t.status AS String), t.views, t.replyCount, t.hasTeacherResponse, " +
+           "t.createdAt, t.lastActivityAt, a.userId, a.username, CAST(a.role AS String), " +
+           "c.courseId, c.courseName, c.code) " +
+           "FROM ForumThread t JOIN t.author a JOIN t.course c " +
+           "ORDER BY t.lastActivityAt DESC, t.threadId DESC")
+    List<ForumThreadDTO> findThreadSummaries();
+
+    @Query("SELECT new com.edulink.dto.forum.ForumThreadDTO(" +
+           "t.threadId, t.title, t.content, CAST(t.status AS String), t.views, t.replyCount, t.hasTeacherResponse, " +
+           "t.createdAt, t.lastActivityAt, a.userId, a.username, CAST(a.role AS String), " +
+           "c.courseId, c.courseName, c.code) " +
+           "FROM ForumThread t JOIN t.author a JOIN t.course c " +
+           "WHERE c.courseId = :courseId " +
+           "ORDER BY t.lastActivityAt DESC, t.threadId DESC")
+    List<ForumThreadDTO> findThreadSummariesByCourse(@Param("courseId") Long courseId);
+
+    /**
+     * Reply summary maintenance. Relative updates, so concurrent replies never lose a count
+     */
+    @Modifying
+    @Query("UPDATE ForumThread t SET t.replyCount = t.replyCount + 1, t.lastActivityAt = :repliedAt, " +
+           "t.hasTeacherResponse = CASE WHEN :teacherResponse = true THEN true ELSE t.hasTeacherResponse END " +
+           "WHERE t.threadId = :threadId")
+    int recordReplyAdded(@Param("threadId") Long threadId,
+                         @Param("repliedAt") LocalDateTime repliedAt,
+                         @Param("teacherResponse") boolean teacherResponse);
+
+    @Modifying
+    @Query("UPDATE ForumThread t SET t.replyCount = t.replyCount - 1, " +
+           "t.hasTeacherResponse = CASE WHEN EXISTS (SELECT 1 FROM ForumReply r " +
+           "WHERE r.thread = t AND r.isTeacherResponse = true) THEN true ELSE false END, " +
+           "t.lastActivityAt = COALESCE((SELECT MAX(r.createdAt) FROM ForumReply r WHERE r.thread = t), t.createdAt) " +
+           "WHERE t.threadId = :threadId")
+    int recordReplyRemoved(@Param("threadId") Long threadId);
+}
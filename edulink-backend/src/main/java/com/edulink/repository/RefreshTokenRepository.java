@@ -0,0 +1,40 @@
+package com.edulink.repository;
+
+import com.edulink.model.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+
+    @Query("SELECT t FROM RefreshToken t JOIN FETCH t.user WHERE t.tokenHash = :tokenHash")
+    Optional<RefreshToken> findByTokenHashWithUser(String tokenHash);
+
+    Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+    /**
+     * Mark a token as exchanged. Returns 0 when it was already used or revoked,
+     * so of two concurrent exchanges of the same token only one succeeds
+     */
+    @Modifying
+    @Query("UPDATE RefreshToken t SET t.usedAt = :usedAt " +
+           "WHERE t.refreshTokenId = :refreshTokenId AND t.usedAt IS NULL AND t.revoked = false")
+    int markUsed(Long refreshTokenId, LocalDateTime usedAt);
+
+    @Modifying
+    @Query("UPDATE RefreshToken t SET t.revoked = true WHERE t.familyId = :familyId")
+    int revokeFamily(String familyId);
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken t WHERE t.user.userId = :userId")
+    int deleteByUserId(Long userId);
+
+    @Modifying
+    @Query("DELETE FROM RefreshToken t WHERE t.expiresAt < :now")
+    int deleteExpired(LocalDateTime now);
+}
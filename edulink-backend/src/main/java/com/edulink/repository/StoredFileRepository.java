@@ -0,0 +1,49 @@
+package com.edulink.repository;
+
+import com.edulink.model.StoredFile;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Reference counts of content-addressed files. Row-level statements only, so concurrent
+ * uploads and deletes of the same content serialize on its row
+ */
+@Repository
+public interface StoredFileRepository extends JpaRepository<StoredFile, String> {
+
+    /**
+     * Create the row with no references yet, unless it exists. Returns 0 when it did
+     */
+    @Modifying
+    @Query(value = "INSERT INTO stored_files (content_key, size_bytes, ref_count, created_at) " +
+                   "VALUES (:contentKey, :sizeBytes, 0, CURRENT_TIMESTAMP) ON CONFLICT DO NOTHING",
+           nativeQuery = true)
+    int insertIfAbsent(@Param("contentKey") String contentKey, @Param("sizeBytes") long sizeBytes);
+
+    /**
+     * Add a reference and lock the row. Returns 0 when the row was deleted meanwhile
+     */
+    @Modifying
+    @Query(value = "UPDATE stored_files SET ref_count = ref_count + 1 WHERE content_key = :contentKey",
+           nativeQuery = true)
+    int addReference(@Param("contentKey") String contentKey);
+
+    /**
+     * Drop a reference. Returns 0 when the file is not content-addressed (no row)
+     */
+    @Modifying
+    @Query(value = "UPDATE stored_files SET ref_count = ref_count - 1 WHERE content_key = :contentKey",
+           nativeQuery = true)
+    int removeReference(@Param("contentKey") String contentKey);
+
+    /**
+     * Delete the row once nothing references it. Returns 1 when the file can be removed
+     */
+    @Modifying
+    @Query(value = "DELETE FROM stored_files WHERE content_key = :contentKey AND ref_count <= 0",
+           nativeQuery = true)
+    int deleteIfUnreferenced(@Param("contentKey") String contentKey);
+}
@@ -2,8 +2,29 @@ package com.edulink.repository;
 
 import com.edulink.model.Student;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
 public interface StudentRepository extends JpaRepository<Student, Long> {
-}
\ No newline at end of file
+
+    /**
+     * Relative update, so concurrent rating changes never lose points
+     */
+    @Modifying
+    @Query("UPDATE Student s SET s.reputationPoints = s.reputationPoints + :delta WHERE s.userId = :userId")
+    int addReputationPoints(@Param("userId") Long userId, @Param("delta") double delta);
+
+    /**
+     * Set-based rebuild of every student's reputation from the stored rating aggregates
+     */
+    @Modifying
+    @Query(value = "UPDATE users u SET reputation_points = :pointsPerStar * COALESCE(" +
+                   "(SELECT SUM(CAST(d.rating_sum AS DOUBLE PRECISION) / d.rating_count) FROM documents d " +
+                   "WHERE d.uploader_id = u.user_id AND d.rating_count > 0), 0) " +
+                   "WHERE u.role = 'STUDENT'",
+           nativeQuery = true)
+    int recomputeReputationPoints(@Param("pointsPerStar") double pointsPerStar);
+}
@@ -0,0 +1,43 @@
+package com.edulink.repository;
+
+import com.edulink.model.UploadSession;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface UploadSessionRepository extends JpaRepository<UploadSession, String> {
+
+    /**
+     * Record a chunk as written. A retried chunk is already recorded and returns 0
+     */
+    @Modifying
+    @Query(value = "INSERT INTO upload_session_chunks (session_id, chunk_index) " +
+                   "VALUES (:sessionId, :chunkIndex) ON CONFLICT DO NOTHING",
+           nativeQuery = true)
+    int recordChunk(@Param("sessionId") String sessionId, @Param("chunkIndex") int chunkIndex);
+
+    @Query(value = "SELECT chunk_index FROM upload_session_chunks WHERE session_id = :sessionId ORDER BY chunk_index",
+           nativeQuery = true)
+    List<Integer> findReceivedChunks(@Param("sessionId") String sessionId);
+
+    @Query(value = "SELECT COUNT(*) FROM upload_session_chunks WHERE session_id = :sessionId",
+           nativeQuery = true)
+    long countReceivedChunks(@Param("sessionId") String sessionId);
+
+    /**
+     * Claim the session for completion or removal. Only one caller gets 1; the row
+     * lock makes a concurrent claim wait for this transaction
+     */
+    @Modifying
+    @Query(value = "DELETE FROM upload_sessions WHERE session_id = :sessionId", nativeQuery = true)
+    int claim(@Param("sessionId") String sessionId);
+
+    @Query("SELECT s.sessionId FROM UploadSession s WHERE s.expiresAt < :now")
+    List<String> findExpiredSessionIds(@Param("now") LocalDateTime now);
+}
@@ -4,6 +4,9 @@ import com.edulink.model.User;
 import com.edulink.model.enums.UserRole;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -17,4 +20,16 @@ public interface UserRepository extends JpaRepository<User, Long> {
     boolean existsByEmail(String email);
     long countByRole(UserRole admin);
     List<User> findByUsernameContainingIgnoreCaseOrEmailContainingIgnoreCase(String query, String query2);
+
+    /**
+     * Change a user's role, which is also its entity type: one UPDATE of the users row.
+     * A new student starts with no reputation. Pending changes are flushed first and the
+     * persistence context is cleared after, so the user is re-read as its new type
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE users SET role = :role, " +
+                   "reputation_points = CASE WHEN :role = 'STUDENT' THEN 0.0 ELSE NULL END " +
+                   "WHERE user_id = :userId",
+           nativeQuery = true)
+    int changeRole(@Param("userId") Long userId, @Param("role") String role);
 }
@@ -0,0 +1,68 @@
+package com.edulink.security;
+
+import com.edulink.exception.BusinessException;
+import com.edulink.model.User;
+import com.edulink.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * Access to the authenticated user of the current request, as resolved by the JWT
+ * filter. Services use it instead of loading the user by username: id and role come
+ * from the principal, and associations get an unloaded getReferenceById proxy.
+ *
+ * The principal lives in the request's SecurityContext, so this bean itself is a
+ * singleton. When there is no authenticated request (scheduled jobs, direct service
+ * calls) or the username is someone else's, it falls back to a database lookup.
+ */
+@Component
+@RequiredArgsConstructor
+public class CurrentUser {
+
+    private final UserRepository userRepository;
+
+    /**
+     * Authenticated user of this request, if any
+     */
+    public Optional<AuthenticatedUser> get() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            return Optional.of(user);
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Id and role of the given user, from the request principal when it is that user.
+     * Throws not found when the user does not exist
+     */
+    public AuthenticatedUser resolve(String username) {
+        return find(username)
+                .orElseThrow(() -> BusinessException.notFound("User not found: " + username));
+    }
+
+    /**
+     * Like resolve(), but empty for a null or unknown username
+     */
+    public Optional<AuthenticatedUser> find(String username) {
+        if (username == null) {
+            return Optional.empty();
+        }
+        Optional<AuthenticatedUser> principal = get().filter(user -> user.getUsername().equals(username));
+        if (principal.isPresent()) {
+            return principal;
+        }
+        return userRepository.findByUsername(username).map(AuthenticatedUser::from);
+    }
+
+    /**
+     * User entity to set on an association, without loading its row
+     */
+    public User reference(AuthenticatedUser user) {
+        return userRepository.getReferenceById(user.getUserId());
+    }
+}
@@ -2,20 +2,20 @@ package com.edulink.security;
 
 import com.edulink.model.User;
 import com.edulink.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
-import java.util.Collections;
-import java.util.List;
 
 @Service
 public class CustomUserDetailsService implements UserDetailsService {
 
+    private static final Logger logger = LoggerFactory.getLogger(CustomUserDetailsService.class);
+
     @Autowired
     private UserRepository userRepository;
 
@@ -24,20 +24,20 @@ public class CustomUserDetailsService implements UserDetailsService {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
 
-        // Crear authority con el rol del usuario
-        List<GrantedAuthority> authorities = Collections.singletonList(
-            new SimpleGrantedAuthority(user.getRole().name())  // "ADMIN", "STUDENT", "TEACHER"
-        );
-
-        System.out.println("=== LOADING USER DETAILS ===");
-        System.out.println("Username: " + user.getUsername());
-        System.out.println("Role: " + user.getRole().name());
-        System.out.println("Authorities: " + authorities);
-
-        return new org.springframework.security.core.userdetails.User(
-                user.getUsername(),
-                user.getPassword(),
-                authorities
-        );
+        logger.debug("Loaded user details for user={} role={}", user.getUsername(), user.getRole());
+
+        // Authority is the role name: "ADMIN", "STUDENT", "TEACHER"
+        return AuthenticatedUser.from(user);
+    }
+
+    /**
+     * Same as loadUserByUsername, by id: usernames can change and be taken again
+     */
+    public UserDetails loadUserById(Long userId) throws UsernameNotFoundException {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new UsernameNotFoundException("User not found: " + userId));
+
+        logger.debug("Loaded user details for user={} role={}", user.getUsername(), user.getRole());
+        return AuthenticatedUser.from(user);
     }
 }
\ No newline at end of file
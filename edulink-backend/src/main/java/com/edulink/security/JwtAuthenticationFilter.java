@@ -1,13 +1,18 @@
 package com.edulink.security;
 
+import com.edulink.config.RequestLoggingFilter;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
@@ -17,11 +22,16 @@ import java.io.IOException;
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
+
     @Autowired
     private JwtUtil jwtUtil;
 
     @Autowired
-    private CustomUserDetailsService userDetailsService;
+    private JwtPrincipalResolver principalResolver;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
@@ -29,34 +39,36 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
         final String authorizationHeader = request.getHeader("Authorization");
 
-        String username = null;
-        String jwt = null;
+        VerifiedJwt token = null;
 
-        // Extract JWT from Authorization header
+        // Extract and verify JWT from Authorization header (one signature check per request)
         if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            jwt = authorizationHeader.substring(7);
+            String jwt = authorizationHeader.substring(7);
             try {
-                username = jwtUtil.extractUsername(jwt);
-                String role = jwtUtil.extractRole(jwt);  
-                
-                System.out.println("=== JWT FILTER ===");
-                System.out.println("Request: " + request.getMethod() + " " + request.getRequestURI());
-                System.out.println("Username: " + username);
-                System.out.println("Role from token: " + role);
-                
-            } catch (Exception e) {
-                System.err.println("JWT Token extraction failed: " + e.getMessage());
-                logger.error("JWT Token extraction failed", e);
+                token = jwtUtil.verify(jwt);
+                logger.trace("Verified token for user={} role={}", token.username(), token.role());
+                if (tokenRevocationService.isRevoked(token)) {
+                    logger.debug("Rejected revoked token of user={}", token.username());
+                    token = null;
+                }
+            } catch (JwtException | IllegalArgumentException e) {
+                logger.debug("JWT validation failed: {}", e.getMessage());
             }
         }
 
-        // Validate token and set authentication
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-
-            System.out.println("User authorities: " + userDetails.getAuthorities());
+        // Set authentication from the verified token
+        if (token != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            String username = token.username();
+            // Principal straight from the verified claims; the database is only
+            // consulted for the user's cached token validity and for stale tokens
+            UserDetails userDetails = null;
+            try {
+                userDetails = principalResolver.resolve(token);
+            } catch (UsernameNotFoundException e) {
+                logger.debug("Token user no longer exists: {}", username);
+            }
 
-            if (jwtUtil.validateToken(jwt, userDetails)) {
+            if (userDetails != null) {
                 UsernamePasswordAuthenticationToken authenticationToken =
                         new UsernamePasswordAuthenticationToken(
                             userDetails, 
@@ -65,11 +77,7 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                         );
                 authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authenticationToken);
-                
-                System.out.println("Authentication set for: " + username);
-                System.out.println("Authorities: " + userDetails.getAuthorities());
-            } else {
-                System.err.println("Token validation failed for: " + username);
+                request.setAttribute(RequestLoggingFilter.USER_ATTRIBUTE, username);
             }
         }
 
@@ -0,0 +1,122 @@
+package com.edulink.security;
+
+import com.edulink.model.enums.UserRole;
+import com.edulink.repository.UserRepository;
+import com.edulink.util.ExpiringCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.ZoneId;
+
+/**
+ * Builds the authenticated principal for a verified JWT.
+ *
+ * The user id, username and role claims are trusted as long as the token was issued
+ * after the user's users.tokens_valid_after, which is set when the role or username
+ * changes. That instant is read once per user and cached for security.principal-cache.ttl,
+ * so normal requests need no database lookup; a change made on another node or before a
+ * restart takes effect within that ttl. Tokens issued before it are resolved against the
+ * database instead (through the same short-lived cache), by user id since the username
+ * in the token may since have been given to another account, and tokens of deleted users
+ * are rejected.
+ */
+@Component
+public class JwtPrincipalResolver {
+
+    // Cached for users that no longer exist
+    private static final long DELETED = Long.MAX_VALUE;
+
+    private final CustomUserDetailsService userDetailsService;
+    private final UserRepository userRepository;
+    private final ExpiringCache<Long, Long> tokensValidAfter;
+    private final ExpiringCache<Long, UserDetails> loadedPrincipals;
+    private final ExpiringCache<String, UserDetails> loadedLegacyPrincipals;
+
+    public JwtPrincipalResolver(
+            CustomUserDetailsService userDetailsService,
+            UserRepository userRepository,
+            @Value("${security.principal-cache.max-size:10000}") int maxCachedPrincipals,
+            @Value("${security.principal-cache.ttl:60000}") long principalTtl
+    ) {
+        this.userDetailsService = userDetailsService;
+        this.userRepository = userRepository;
+        this.tokensValidAfter = new ExpiringCache<>(maxCachedPrincipals, Duration.ofMillis(principalTtl));
+        this.loadedPrincipals = new ExpiringCache<>(maxCachedPrincipals, Duration.ofMillis(principalTtl));
+        this.loadedLegacyPrincipals = new ExpiringCache<>(maxCachedPrincipals, Duration.ofMillis(principalTtl));
+    }
+
+    /**
+     * Principal for a token whose signature and expiry were already verified.
+     * Throws UsernameNotFoundException when the token belongs to a deleted user
+     */
+    public UserDetails resolve(VerifiedJwt token) {
+        String username = token.username();
+        UserRole role = roleOf(token);
+        if (token.userId() != null && role != null && token.issuedAt() != null) {
+            long validAfter = tokensValidAfter.get(token.userId(), this::loadTokensValidAfter);
+            if (validAfter == DELETED) {
+                throw new UsernameNotFoundException("User not found: " + username);
+            }
+            // iat has second precision, so a token from the same second counts as stale
+            if (token.issuedAt().getTime() > validAfter) {
+                return new AuthenticatedUser(token.userId(), username, "", role);
+            }
+        }
+        if (token.userId() != null) {
+            // Issued before an invalidation: the user it was issued to, as stored now
+            return loadedPrincipals.get(token.userId(), userDetailsService::loadUserById);
+        }
+        // Tokens from before the uid claim
+        return loadedLegacyPrincipals.get(username, userDetailsService::loadUserByUsername);
+    }
+
+    /**
+     * Forget what is cached for the user, after its tokens_valid_after was moved or the
+     * user was deleted in the current transaction
+     */
+    public void invalidate(Long userId, String username) {
+        evict(userId, username);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // A lookup racing the change may have cached the old row; evict again once committed
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evict(userId, username);
+                }
+            });
+        }
+    }
+
+    // Helper methods
+
+    private Long loadTokensValidAfter(Long userId) {
+        return userRepository.findById(userId)
+                .map(user -> user.getTokensValidAfter() == null
+                        ? Long.MIN_VALUE
+                        : user.getTokensValidAfter().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli())
+                .orElse(DELETED);
+    }
+
+    private static UserRole roleOf(VerifiedJwt token) {
+        if (token.role() == null) {
+            return null;
+        }
+        try {
+            return UserRole.valueOf(token.role());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private void evict(Long userId, String username) {
+        tokensValidAfter.remove(userId);
+        loadedPrincipals.remove(userId);
+        loadedLegacyPrincipals.remove(username);
+    }
+}
@@ -1,86 +1,69 @@
 package com.edulink.security;
 
-import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import java.security.Key;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.function.Function;
+import java.util.UUID;
 
 @Component
 public class JwtUtil {
 
+    private static final Logger logger = LoggerFactory.getLogger(JwtUtil.class);
+
     @Value("${jwt.secret:edulink_super_secret_key_for_jwt_token_generation_2024}")
     private String secret;
 
-    @Value("${jwt.expiration:3600000}") // 1 hour 
+    @Value("${jwt.access-token-expiration:900000}") // 15 minutes, renewed through /api/auth/refresh
     private Long expiration;
 
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
-    }
-
-    public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
-    }
-
-    public String extractRole(String token) {
-        return (String) extractAllClaims(token).get("role");
-    }
-
-    public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
-    }
-
-    public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
-        return claimsResolver.apply(claims);
-    }
+    // Built once: the key and the parser are immutable and thread-safe
+    private Key signingKey;
+    private JwtParser parser;
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes());
+        parser = Jwts.parserBuilder()
+                .setSigningKey(signingKey)
+                .build();
     }
 
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    /**
+     * Verify the signature and expiry of a token and return its claims, with a single parse.
+     * Throws JwtException (or IllegalArgumentException for an empty token) when invalid
+     */
+    public VerifiedJwt verify(String token) {
+        return VerifiedJwt.from(parser.parseClaimsJws(token).getBody());
     }
 
-    public String generateToken(String username, String role) {
-        System.out.println("=== GENERATING TOKEN ===");
-        System.out.println("Username: " + username);
-        System.out.println("Role: " + role);
-        
+    public String generateToken(Long userId, String username, String role) {
         Map<String, Object> claims = new HashMap<>();
+        claims.put("uid", userId);
         claims.put("role", role);
-        return createToken(claims, username);
+        String token = createToken(claims, username);
+        logger.debug("Generated token for user={} role={}", username, role);
+        return token;
     }
 
     private String createToken(Map<String, Object> claims, String subject) {
-        String token = Jwts.builder()
+        return Jwts.builder()
                 .setClaims(claims)
+                .setId(UUID.randomUUID().toString())
                 .setSubject(subject)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
-        
-        System.out.println("Token generated: " + token.substring(0, 20) + "...");
-        return token;
-    }
-
-    public Boolean validateToken(String token, UserDetails userDetails) {
-        final String username = extractUsername(token);
-        return (username.equals(userDetails.getUsername()) && !isTokenExpired(token));
     }
-}
\ No newline at end of file
+}
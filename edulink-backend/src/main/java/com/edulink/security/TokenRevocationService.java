@@ -0,0 +1,75 @@
+package com.edulink.security;
+
+import com.edulink.util.BloomFilter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory denylist of revoked token ids (jti), kept until the token would have
+ * expired anyway.
+ *
+ * A Bloom filter sits in front of the map, so for the common case of a token that
+ * was never revoked isRevoked() is a few bit tests with no map lookup. Bloom filters
+ * cannot delete, so every sweep drops expired entries and rebuilds the filter from
+ * the ones left. Revocations are per instance and do not survive a restart.
+ */
+@Component
+public class TokenRevocationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private final Map<String, Long> revokedUntil = new ConcurrentHashMap<>();
+    private final int expectedRevocations;
+    private volatile BloomFilter filter;
+
+    public TokenRevocationService(@Value("${jwt.revocation.expected-revocations:100000}") int expectedRevocations) {
+        this.expectedRevocations = expectedRevocations;
+        this.filter = new BloomFilter(expectedRevocations, FALSE_POSITIVE_RATE);
+    }
+
+    /**
+     * Reject the token from now on. Tokens without an id cannot be revoked individually
+     */
+    public synchronized void revoke(VerifiedJwt token) {
+        if (token.tokenId() == null) {
+            logger.debug("Token of user {} has no id and cannot be revoked", token.username());
+            return;
+        }
+        // Map first, then filter: a reader that sees the bits also sees the entry
+        revokedUntil.put(token.tokenId(), token.expiresAt().getTime());
+        filter.add(token.tokenId());
+    }
+
+    public boolean isRevoked(VerifiedJwt token) {
+        String tokenId = token.tokenId();
+        return tokenId != null
+                && filter.mightContain(tokenId)
+                && revokedUntil.containsKey(tokenId);
+    }
+
+    @Scheduled(initialDelayString = "${jwt.token-blacklist-cleanup:86400000}",
+               fixedDelayString = "${jwt.token-blacklist-cleanup:86400000}")
+    public synchronized void sweep() {
+        long now = System.currentTimeMillis();
+        int before = revokedUntil.size();
+        revokedUntil.values().removeIf(expiresAt -> expiresAt <= now);
+
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedRevocations, revokedUntil.size() * 2), FALSE_POSITIVE_RATE);
+        revokedUntil.keySet().forEach(rebuilt::add);
+        filter = rebuilt;
+
+        logger.debug("Swept revoked tokens: {} expired, {} still revoked", before - revokedUntil.size(), revokedUntil.size());
+    }
+
+    public int size() {
+        return revokedUntil.size();
+    }
+}
@@ -0,0 +1,21 @@
+package com.edulink.security;
+
+import io.jsonwebtoken.Claims;
+
+import java.util.Date;
+
+/**
+ * Claims of a token whose signature and expiry have been verified
+ */
+public record VerifiedJwt(String tokenId, Long userId, String username, String role, Date issuedAt, Date expiresAt) {
+
+    static VerifiedJwt from(Claims claims) {
+        return new VerifiedJwt(
+                claims.getId(),
+                claims.get("uid", Long.class),
+                claims.getSubject(),
+                claims.get("role", String.class),
+                claims.getIssuedAt(),
+                claims.getExpiration());
+    }
+}
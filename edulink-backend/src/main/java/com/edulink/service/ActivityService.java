@@ -6,10 +6,10 @@ import com.edulink.dto.activity.ActivityDTO;
 import com.edulink.dto.activity.ActivityUpdateRequest;
 import com.edulink.exception.BusinessException;
 import com.edulink.model.Activity;
-import com.edulink.model.User;
 import com.edulink.model.enums.ActivityType;
 import com.edulink.repository.ActivityRepository;
-import com.edulink.repository.UserRepository;
+import com.edulink.security.AuthenticatedUser;
+import com.edulink.security.CurrentUser;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -18,7 +18,6 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
 
 
 @Service
@@ -31,7 +30,7 @@ public class ActivityService {
 
 
     private final ActivityRepository activityRepository;
-    private final UserRepository userRepository;
+    private final CurrentUser currentUser;
 
 
     /**
@@ -39,9 +38,7 @@ public class ActivityService {
      */
     @Transactional(readOnly = true)
     public List<ActivityDTO> getAllActivities() {
-        return activityRepository.findAll().stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return activityRepository.findActivitySummaries();
     }
 
 
@@ -50,7 +47,7 @@ public class ActivityService {
      */
     @Transactional(readOnly = true)
     public ActivityDTO getActivityById(Long activityId) {
-        Activity activity = activityRepository.findById(activityId)
+        Activity activity = activityRepository.findWithOrganizerByActivityId(activityId)
                 .orElseThrow(() -> BusinessException.notFound("Activity not found with id: " + activityId));
         
         return convertToDTO(activity);
@@ -64,9 +61,8 @@ public class ActivityService {
         logger.info("User {} creating activity: {}", username, request.getTitle());
 
 
-        // Get organizer
-        User organizer = userRepository.findByUsername(username)
-                .orElseThrow(() -> BusinessException.notFound("User not found: " + username));
+        // Get organizer (from the request principal)
+        AuthenticatedUser organizer = currentUser.resolve(username);
 
 
         // Validate activity type
@@ -85,7 +81,7 @@ public class ActivityService {
         activity.setActivityType(activityType);
         activity.setActivityDate(request.getActivityDate());
         activity.setLocation(request.getLocation());
-        activity.setOrganizer(organizer);
+        activity.setOrganizer(currentUser.reference(organizer));
         activity.setAttendance(0);
 
 
@@ -93,7 +89,7 @@ public class ActivityService {
         logger.info("Activity created with ID: {}", savedActivity.getActivityId());
 
 
-        return convertToDTO(savedActivity);
+        return convertToDTO(savedActivity, organizer);
     }
 
 
@@ -108,8 +104,7 @@ public class ActivityService {
                 .orElseThrow(() -> BusinessException.notFound("Activity not found with id: " + activityId));
 
 
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> BusinessException.notFound("User not found: " + username));
+        AuthenticatedUser user = currentUser.resolve(username);
 
 
         // Only organizer can update
@@ -143,8 +138,9 @@ public class ActivityService {
         }
 
 
+        // The caller is the organizer, so the organizer row is never loaded
         Activity updatedActivity = activityRepository.save(activity);
-        return convertToDTO(updatedActivity);
+        return convertToDTO(updatedActivity, user);
     }
 
 
@@ -159,8 +155,7 @@ public class ActivityService {
                 .orElseThrow(() -> BusinessException.notFound("Activity not found with id: " + activityId));
 
 
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> BusinessException.notFound("User not found: " + username));
+        AuthenticatedUser user = currentUser.resolve(username);
 
 
         // Only organizer can delete
@@ -177,6 +172,10 @@ public class ActivityService {
     // Helper methods
 
     private ActivityDTO convertToDTO(Activity activity) {
+        return convertToDTO(activity, AuthenticatedUser.from(activity.getOrganizer()));
+    }
+
+    private ActivityDTO convertToDTO(Activity activity, AuthenticatedUser organizer) {
         return ActivityDTO.builder()
                 .activityId(activity.getActivityId())
                 .title(activity.getTitle())
@@ -185,9 +184,9 @@ public class ActivityService {
                 .activityDate(activity.getActivityDate())
                 .location(activity.getLocation())
                 .attendance(activity.getAttendance())
-                .organizerId(activity.getOrganizer().getUserId())
-                .organizerUsername(activity.getOrganizer().getUsername())
-                .organizerRole(activity.getOrganizer().getRole().toString())
+                .organizerId(organizer.getUserId())
+                .organizerUsername(organizer.getUsername())
+                .organizerRole(organizer.getRole().toString())
                 .build();
     }
 }
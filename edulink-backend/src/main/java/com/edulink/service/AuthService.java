@@ -3,6 +3,7 @@ package com.edulink.service;
 
 import com.edulink.dto.AuthResponse;
 import com.edulink.dto.LoginRequest;
+import com.edulink.dto.RefreshRequest;
 import com.edulink.dto.RegisterRequest;
 import com.edulink.dto.user.UserDTO;
 import com.edulink.exception.BusinessException;
@@ -10,6 +11,9 @@ import com.edulink.model.*;
 import com.edulink.model.enums.UserRole;
 import com.edulink.repository.UserRepository;
 import com.edulink.security.JwtUtil;
+import com.edulink.security.TokenRevocationService;
+import com.edulink.security.VerifiedJwt;
+import io.jsonwebtoken.JwtException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
@@ -40,6 +44,8 @@ public class AuthService {
     private final PasswordEncoder passwordEncoder;
     private final JwtUtil jwtUtil;
     private final AuthenticationManager authenticationManager;
+    private final TokenRevocationService tokenRevocationService;
+    private final RefreshTokenService refreshTokenService;
 
 
     /**
@@ -74,9 +80,10 @@ public class AuthService {
         log.info("User created successfully: {} with role: {}", user.getUsername(), user.getRole());
 
         // Generate JWT token
-        String token = jwtUtil.generateToken(user.getUsername(), user.getRole().name());
+        String token = jwtUtil.generateToken(user.getUserId(), user.getUsername(), user.getRole().name());
+        String refreshToken = refreshTokenService.issue(user);
 
-        return buildAuthResponse(user, token, "Registration successful");
+        return buildAuthResponse(user, token, refreshToken, "Registration successful");
     }
 
 
@@ -86,7 +93,7 @@ public class AuthService {
      * @return AuthResponse with JWT token
      * @throws BusinessException if authentication fails
      */
-    @Transactional(readOnly = true)
+    @Transactional
     public AuthResponse login(LoginRequest request) {
         log.debug("Attempting login for user: {}", request.getUsername());
 
@@ -107,11 +114,12 @@ public class AuthService {
 
 
             // Generate JWT token
-            String token = jwtUtil.generateToken(user.getUsername(), user.getRole().name());
+            String token = jwtUtil.generateToken(user.getUserId(), user.getUsername(), user.getRole().name());
+            String refreshToken = refreshTokenService.issue(user);
 
 
             log.info("User authenticated successfully: {}", user.getUsername());
-            return buildAuthResponse(user, token, "Login successful");
+            return buildAuthResponse(user, token, refreshToken, "Login successful");
 
 
         } catch (BadCredentialsException e) {
@@ -124,6 +132,47 @@ public class AuthService {
     }
 
 
+    /**
+     * Issue a new access token from a refresh token, without checking the password.
+     * The refresh token is rotated: the one presented becomes unusable
+     * @param request Refresh token from the last login or refresh
+     * @return AuthResponse with a new access token and a new refresh token
+     * @throws BusinessException if the refresh token is invalid, expired or reused
+     */
+    public AuthResponse refresh(RefreshRequest request) {
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(request.getRefreshToken());
+        User user = rotation.user();
+
+        String token = jwtUtil.generateToken(user.getUserId(), user.getUsername(), user.getRole().name());
+        log.debug("Access token refreshed for user: {}", user.getUsername());
+        return buildAuthResponse(user, token, rotation.refreshToken(), "Token refreshed");
+    }
+
+
+    /**
+     * Revoke the given access token so it is rejected until it expires, and the
+     * refresh token family when one is given.
+     * Invalid or already expired access tokens need no revocation and are ignored
+     * @param token Raw JWT from the Authorization header, may be null
+     * @param refreshToken Refresh token of the session, may be null
+     */
+    @Transactional
+    public void logout(String token, String refreshToken) {
+        if (token != null) {
+            try {
+                VerifiedJwt verified = jwtUtil.verify(token);
+                tokenRevocationService.revoke(verified);
+                log.info("Token revoked for user: {}", verified.username());
+            } catch (JwtException | IllegalArgumentException e) {
+                log.debug("Logout with an invalid token: {}", e.getMessage());
+            }
+        }
+        if (refreshToken != null && !refreshToken.isBlank()) {
+            refreshTokenService.revoke(refreshToken);
+        }
+    }
+
+
     /**
      * Get current authenticated user details
      * @param username Username from JWT token
@@ -175,9 +224,10 @@ public class AuthService {
     /**
      * Build AuthResponse DTO
      */
-    private AuthResponse buildAuthResponse(User user, String token, String message) {
+    private AuthResponse buildAuthResponse(User user, String token, String refreshToken, String message) {
         return AuthResponse.builder()
                 .token(token)
+                .refreshToken(refreshToken)
                 .username(user.getUsername())
                 .email(user.getEmail())
                 .role(user.getRole().name())
@@ -0,0 +1,380 @@
+package com.edulink.service;
+
+import com.edulink.config.DocumentProcessingProperties;
+import com.edulink.model.enums.ProcessingStatus;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+
+/**
+ * Work done on a document after its upload has been committed, on a small pool with a
+ * bounded queue so it never adds to upload latency. Each stage records its status on
+ * the document row, and the overall status ends as DONE or FAILED:
+ *
+ * - CONTENT_TYPE: detect the type from the file's leading bytes; downloads use it
+ *   instead of trusting the extension
+ * - CHECKSUM: re-hash a content-addressed file and compare it with its name, which
+ *   catches a truncated or damaged write (SKIPPED for older, randomly named files)
+ *
+ * Documents are submitted after commit. When the queue is full, or the application
+ * stopped before a document was processed, it stays PENDING and the periodic sweep
+ * submits it again; stages are idempotent. Everything goes through JdbcTemplate, so
+ * the pipeline never writes over entity state (see Document).
+ *
+ * Metrics: executor.* tagged name=document.processing (queue depth, active threads).
+ */
+@Component
+public class DocumentProcessingPipeline {
+
+    private static final Logger logger = LoggerFactory.getLogger(DocumentProcessingPipeline.class);
+
+    private static final Pattern CONTENT_ADDRESSED = Pattern.compile("([0-9a-f]{64})(\\.[a-z0-9]{1,10})?");
+
+    private static final int SNIFF_BYTES = 4096;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final FileStorageService fileStorageService;
+    private final ThreadPoolExecutor pool;
+    private final ExecutorService executor;
+
+    // Submitted and not finished yet, so the sweep does not queue them twice
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Processing stages, in the order they run, with their status column
+     */
+    enum Stage {
+        CONTENT_TYPE("content_type_status"),
+        CHECKSUM("checksum_status");
+
+        private final String statusColumn;
+
+        Stage(String statusColumn) {
+            this.statusColumn = statusColumn;
+        }
+    }
+
+    public DocumentProcessingPipeline(
+            JdbcTemplate jdbcTemplate,
+            FileStorageService fileStorageService,
+            DocumentProcessingProperties properties,
+            MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.fileStorageService = fileStorageService;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.pool = new ThreadPoolExecutor(
+                properties.getThreads(), properties.getThreads(), 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                task -> {
+                    Thread thread = new Thread(task, "document-processing-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+        this.executor = ExecutorServiceMetrics.monitor(meterRegistry, pool, "document.processing");
+    }
+
+    /**
+     * Queue the document once the current transaction commits (right away without one)
+     */
+    public void submitAfterCommit(Long documentId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            submit(documentId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                submit(documentId);
+            }
+        });
+    }
+
+    /**
+     * Queue the document unless it is already queued. Returns false when the queue is
+     * full; the document then waits for the next sweep
+     */
+    public boolean submit(Long documentId) {
+        if (!inFlight.add(documentId)) {
+            return true;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    process(documentId);
+                } finally {
+                    inFlight.remove(documentId);
+                }
+            });
+            return true;
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(documentId);
+            logger.debug("Processing queue full, document {} left for the sweep", documentId);
+            return false;
+        }
+    }
+
+    /**
+     * Run every stage for the document. Does nothing unless it is PENDING
+     */
+    public void process(Long documentId) {
+        int claimed = jdbcTemplate.update(
+                "UPDATE documents SET processing_status = ? WHERE document_id = ? AND processing_status = ?",
+                ProcessingStatus.RUNNING.name(), documentId, ProcessingStatus.PENDING.name());
+        if (claimed == 0) {
+            return;
+        }
+
+        String error = null;
+        try {
+            List<String> fileUrls = jdbcTemplate.queryForList(
+                    "SELECT file_url FROM documents WHERE document_id = ?", String.class, documentId);
+            Path file = fileUrls.isEmpty() || fileUrls.get(0) == null ? null : locate(fileUrls.get(0));
+            if (file == null) {
+                throw new IOException("File not found");
+            }
+
+            for (Stage stage : Stage.values()) {
+                setStageStatus(documentId, stage, ProcessingStatus.RUNNING);
+                ProcessingStatus status = run(stage, documentId, file);
+                setStageStatus(documentId, stage, status);
+                if (status == ProcessingStatus.FAILED) {
+                    error = stage.name() + " check failed";
+                    break;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Processing of document {} failed: {}", documentId, e.getMessage());
+            error = e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+        }
+
+        // After a failure: the stage that was running failed, the ones after it never ran
+        for (Stage stage : Stage.values()) {
+            jdbcTemplate.update("UPDATE documents SET " + stage.statusColumn + " = CASE " + stage.statusColumn
+                            + " WHEN ? THEN ? ELSE ? END WHERE document_id = ? AND " + stage.statusColumn + " IN (?, ?)",
+                    ProcessingStatus.RUNNING.name(), ProcessingStatus.FAILED.name(), ProcessingStatus.SKIPPED.name(),
+                    documentId, ProcessingStatus.PENDING.name(), ProcessingStatus.RUNNING.name());
+        }
+        jdbcTemplate.update(
+                "UPDATE documents SET processing_status = ?, processing_error = ?, processed_at = ? WHERE document_id = ?",
+                (error == null ? ProcessingStatus.DONE : ProcessingStatus.FAILED).name(),
+                error == null ? null : truncate(error, 500),
+                Timestamp.valueOf(LocalDateTime.now()),
+                documentId);
+    }
+
+    /**
+     * Submit PENDING documents that are not queued: submissions dropped on a full
+     * queue, uploads from before a restart, and documents from before the pipeline
+     */
+    @Scheduled(initialDelayString = "${documents.processing.sweep-interval:60000}",
+               fixedDelayString = "${documents.processing.sweep-interval:60000}")
+    public void sweep() {
+        int room = pool.getQueue().remainingCapacity();
+        if (room == 0) {
+            return;
+        }
+        List<Long> pending = jdbcTemplate.queryForList(
+                "SELECT document_id FROM documents WHERE processing_status = ? ORDER BY document_id LIMIT ?",
+                Long.class, ProcessingStatus.PENDING.name(), room + inFlight.size());
+
+        int submitted = 0;
+        for (Long documentId : pending) {
+            if (inFlight.contains(documentId)) {
+                continue;
+            }
+            if (!submit(documentId)) {
+                break;
+            }
+            submitted++;
+        }
+        if (submitted > 0) {
+            logger.info("Sweep submitted {} pending documents for processing", submitted);
+        }
+    }
+
+    /**
+     * Documents left RUNNING by a stop in the middle of processing start over
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resetInterrupted() {
+        int reset = jdbcTemplate.update("UPDATE documents SET processing_status = ? WHERE processing_status = ?",
+                ProcessingStatus.PENDING.name(), ProcessingStatus.RUNNING.name());
+        if (reset > 0) {
+            logger.info("Reset {} documents interrupted during processing", reset);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    // Helper methods
+
+    private ProcessingStatus run(Stage stage, Long documentId, Path file) throws IOException {
+        return switch (stage) {
+            case CONTENT_TYPE -> {
+                String contentType = sniffContentType(file);
+                jdbcTemplate.update("UPDATE documents SET content_type = ? WHERE document_id = ?", contentType, documentId);
+                yield ProcessingStatus.DONE;
+            }
+            case CHECKSUM -> verifyChecksum(file);
+        };
+    }
+
+    private void setStageStatus(Long documentId, Stage stage, ProcessingStatus status) {
+        jdbcTemplate.update("UPDATE documents SET " + stage.statusColumn + " = ? WHERE document_id = ?",
+                status.name(), documentId);
+    }
+
+    // Same lookup as downloads: the stored path, else the fan-out location of its name
+    private Path locate(String fileUrl) {
+        Path path = Paths.get(fileUrl);
+        if (Files.isRegularFile(path)) {
+            return path;
+        }
+        Path stored = fileStorageService.loadFile(path.getFileName().toString());
+        return Files.isRegularFile(stored) ? stored : null;
+    }
+
+    /**
+     * Type from the leading bytes. Only types that are safe to serve are recognized, so
+     * a renamed HTML or script file is served as application/octet-stream
+     */
+    static String sniffContentType(Path file) throws IOException {
+        byte[] head = new byte[SNIFF_BYTES];
+        int length;
+        try (InputStream in = Files.newInputStream(file)) {
+            length = in.readNBytes(head, 0, SNIFF_BYTES);
+        }
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+
+        if (startsWith(head, length, '%', 'P', 'D', 'F', '-')) {
+            return "application/pdf";
+        }
+        if (startsWith(head, length, 0x89, 'P', 'N', 'G')) {
+            return "image/png";
+        }
+        if (startsWith(head, length, 0xFF, 0xD8, 0xFF)) {
+            return "image/jpeg";
+        }
+        if (startsWith(head, length, 'P', 'K', 0x03, 0x04)) {
+            // Office Open XML files are zip archives
+            if (name.endsWith(".docx")) {
+                return "application/vnd.openxmlformats-officedocument.wordprocessingml.document";
+            }
+            if (name.endsWith(".pptx")) {
+                return "application/vnd.openxmlformats-officedocument.presentationml.presentation";
+            }
+            if (name.endsWith(".xlsx")) {
+                return "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+            }
+            return "application/zip";
+        }
+        if (startsWith(head, length, 0xD0, 0xCF, 0x11, 0xE0) && name.endsWith(".doc")) {
+            return "application/msword";
+        }
+        if (name.endsWith(".txt") && isUtf8Text(head, length)) {
+            return "text/plain";
+        }
+        return "application/octet-stream";
+    }
+
+    private ProcessingStatus verifyChecksum(Path file) throws IOException {
+        var name = CONTENT_ADDRESSED.matcher(file.getFileName().toString());
+        if (!name.matches()) {
+            return ProcessingStatus.SKIPPED;
+        }
+
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocateDirect(1 << 16);
+            while (channel.read(buffer) >= 0) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+        String actual = HexFormat.of().formatHex(digest.digest());
+        if (!actual.equals(name.group(1))) {
+            logger.error("Stored file {} does not match its content hash ({})", file, actual);
+            return ProcessingStatus.FAILED;
+        }
+        return ProcessingStatus.DONE;
+    }
+
+    private static boolean startsWith(byte[] head, int length, int... prefix) {
+        if (length < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if ((head[i] & 0xFF) != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isUtf8Text(byte[] head, int length) {
+        for (int i = 0; i < length; i++) {
+            if (head[i] == 0) {
+                return false;
+            }
+        }
+        // Unless the sample is the whole file, a character cut off at its end is still text
+        CoderResult result = StandardCharsets.UTF_8.newDecoder()
+                .onMalformedInput(CodingErrorAction.REPORT)
+                .onUnmappableCharacter(CodingErrorAction.REPORT)
+                .decode(ByteBuffer.wrap(head, 0, length), CharBuffer.allocate(length), length < SNIFF_BYTES);
+        return !result.isError();
+    }
+
+    private static String truncate(String value, int maxLength) {
+        return value.length() <= maxLength ? value : value.substring(0, maxLength);
+    }
+}
@@ -0,0 +1,47 @@
+package com.edulink.service;
+
+import com.edulink.exception.BusinessException;
+import com.edulink.repository.DocumentRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Background job that detects and repairs drift between the rating aggregates
+ * stored on documents and the rows in document_ratings.
+ */
+@Component
+@RequiredArgsConstructor
+public class DocumentRatingReconciliationJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(DocumentRatingReconciliationJob.class);
+
+    private final DocumentRepository documentRepository;
+    private final DocumentRatingService ratingService;
+
+    @Scheduled(initialDelayString = "${documents.rating-reconciliation-initial-delay:60000}",
+               fixedDelayString = "${documents.rating-reconciliation-interval:3600000}")
+    public void reconcile() {
+        List<Long> driftedIds = documentRepository.findDocumentIdsWithRatingDrift();
+
+        if (driftedIds.isEmpty()) {
+            logger.debug("Rating aggregates are consistent");
+            return;
+        }
+
+        logger.warn("Rating aggregates drifted for {} documents, repairing", driftedIds.size());
+
+        for (Long documentId : driftedIds) {
+            try {
+                ratingService.repairRatingAggregates(documentId);
+            } catch (BusinessException e) {
+                // Document deleted since the drift check
+                logger.debug("Skipping rating repair for document {}: {}", documentId, e.getMessage());
+            }
+        }
+    }
+}
@@ -5,6 +5,8 @@ import com.edulink.dto.document.DocumentRatingDTO;
 import com.edulink.exception.BusinessException;
 import com.edulink.model.*;
 import com.edulink.repository.*;
+import com.edulink.security.AuthenticatedUser;
+import com.edulink.security.CurrentUser;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -12,6 +14,10 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+
 @Service
 @RequiredArgsConstructor
 @Transactional
@@ -23,7 +29,8 @@ public class DocumentRatingService {
 
     private final DocumentRatingRepository ratingRepository;
     private final DocumentRepository documentRepository;
-    private final UserRepository userRepository;
+    private final CurrentUser currentUser;
+    private final StudentReputationService reputationService;
 
 
     /**
@@ -40,12 +47,11 @@ public class DocumentRatingService {
 
 
         // Get user
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> BusinessException.notFound("User not found: " + username));
+        AuthenticatedUser user = currentUser.resolve(username);
 
 
-        // Get document
-        Document document = documentRepository.findById(documentId)
+        // Get document (row locked so the aggregate update below is atomic)
+        Document document = documentRepository.findByIdForUpdate(documentId)
                 .orElseThrow(() -> BusinessException.notFound("Document not found with id: " + documentId));
 
 
@@ -58,18 +64,25 @@ public class DocumentRatingService {
         DocumentRating documentRating = ratingRepository
                 .findByDocumentDocumentIdAndUserUserId(documentId, user.getUserId())
                 .orElse(new DocumentRating());
+        Integer previousRating = documentRating.getRating();
 
 
         documentRating.setDocument(document);
-        documentRating.setUser(user);
+        documentRating.setUser(currentUser.reference(user));
         documentRating.setRating(rating);
 
 
         ratingRepository.save(documentRating);
 
 
+        // Apply the delta to the stored aggregates
+        double previousAverage = document.getAverageRating();
+        document.applyRating(previousRating, rating);
+        documentRepository.save(document);
+
+
         // Update uploader reputation if student
-        updateUploaderReputation(document);
+        reputationService.applyAverageChange(document.getUploader(), previousAverage, document.getAverageRating());
 
 
         // Return updated rating info
@@ -82,63 +95,51 @@ public class DocumentRatingService {
      */
     @Transactional(readOnly = true)
     public DocumentRatingDTO getRating(Long documentId, String username) {
-        Double avgRating = ratingRepository.getAverageRatingForDocument(documentId);
-        Long totalRatings = ratingRepository.countRatingsForDocument(documentId);
-
-
-        Integer userRating = null;
-        if (username != null) {
-            User user = userRepository.findByUsername(username).orElse(null);
-            if (user != null) {
-                userRating = ratingRepository
-                        .findByDocumentDocumentIdAndUserUserId(documentId, user.getUserId())
-                        .map(DocumentRating::getRating)
-                        .orElse(null);
-            }
-        }
+        Document document = documentRepository.findById(documentId)
+                .orElseThrow(() -> BusinessException.notFound("Document not found with id: " + documentId));
+
+
+        Integer userRating = currentUser.find(username)
+                .flatMap(user -> ratingRepository.findByDocumentDocumentIdAndUserUserId(documentId, user.getUserId()))
+                .map(DocumentRating::getRating)
+                .orElse(null);
+
+
+        Map<Integer, Long> histogram = new LinkedHashMap<>();
+        histogram.put(1, document.getOneStarCount());
+        histogram.put(2, document.getTwoStarCount());
+        histogram.put(3, document.getThreeStarCount());
+        histogram.put(4, document.getFourStarCount());
+        histogram.put(5, document.getFiveStarCount());
 
 
         return DocumentRatingDTO.builder()
-                .averageRating(avgRating != null ? avgRating : 0.0)
-                .totalRatings(totalRatings)
+                .averageRating(document.getAverageRating())
+                .totalRatings(document.getRatingCount())
                 .userRating(userRating)
+                .ratingHistogram(histogram)
                 .build();
     }
 
 
     /**
-     * Update uploader reputation based on ratings
+     * Rebuild a document's rating aggregates from document_ratings
      */
-    private void updateUploaderReputation(Document document) {
-        User uploader = document.getUploader();
+    public void repairRatingAggregates(Long documentId) {
+        Document document = documentRepository.findByIdForUpdate(documentId)
+                .orElseThrow(() -> BusinessException.notFound("Document not found with id: " + documentId));
 
 
-        if (!(uploader instanceof Student)) {
-            return;
+        double previousAverage = document.getAverageRating();
+        document.clearRatings();
+        for (Object[] row : ratingRepository.countRatingsByStars(documentId)) {
+            document.addRatings((Integer) row[0], (Long) row[1]);
         }
 
 
-        Student student = (Student) uploader;
-
-
-        // Calculate total reputation from all documents
-        double totalReputation = documentRepository.findAll().stream()
-                .filter(doc -> doc.getUploader().getUserId().equals(student.getUserId()))
-                .mapToDouble(doc -> {
-                    Double avgRating = ratingRepository.getAverageRatingForDocument(doc.getDocumentId());
-                    return avgRating != null ? avgRating * 20 : 0.0; // 20 points per star
-                })
-                .sum();
-
-
-        student.setReputationPoints(totalReputation);
-        userRepository.save(student);
-
-
-        logger.info("Updated reputation for student {}: {} points", 
-                    student.getUsername(), totalReputation);
+        documentRepository.save(document);
+        reputationService.applyAverageChange(document.getUploader(), previousAverage, document.getAverageRating());
+        logger.info("Repaired rating aggregates for document {}: {} ratings, average {}",
+                    documentId, document.getRatingCount(), document.getAverageRating());
     }
 }
-
-
-
@@ -1,28 +1,39 @@
 package com.edulink.service;
 
 
+import com.edulink.dto.CursorPageDTO;
 import com.edulink.dto.document.*;
 import com.edulink.exception.BusinessException;
 import com.edulink.model.*;
 import com.edulink.model.enums.UserRole;
 import com.edulink.repository.*;
+import com.edulink.security.AuthenticatedUser;
+import com.edulink.security.CurrentUser;
 
 
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.core.io.ByteArrayResource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 
 import java.io.File;
-import java.nio.file.Files;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.time.LocalDateTime;
+import java.util.Base64;
 import java.util.List;
-import java.util.stream.Collectors;
 
 
 @Service
@@ -35,20 +46,70 @@ public class DocumentService {
 
 
     private final DocumentRepository documentRepository;
-    private final UserRepository userRepository;
+    private final CurrentUser currentUser;
+    private final StudentReputationService reputationService;
     private final CourseRepository courseRepository;
     private final DocumentRatingRepository ratingRepository;
     private final FileStorageService fileStorageService;
+    private final DownloadCountBuffer downloadCountBuffer;
+    private final TransactionTemplate transactionTemplate;
+    private final DocumentProcessingPipeline processingPipeline;
+
+
+    @Value("${documents.page.default-size:20}")
+    private int defaultPageSize;
+
+
+    @Value("${documents.page.max-size:100}")
+    private int maxPageSize;
+
+
+    @Value("${documents.upload.max-size:52428800}")
+    private long maxUploadSize;
 
 
     /**
-     * Get all approved documents
+     * Get a page of approved documents, newest first
      */
     @Transactional(readOnly = true)
-    public List<DocumentDTO> getAllDocuments() {
-        return documentRepository.findByIsApproved(true).stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    public CursorPageDTO<DocumentDTO> getAllDocuments(String cursor, Integer size) {
+        int pageSize = resolvePageSize(size);
+        Limit limit = Limit.of(pageSize + 1);
+
+
+        List<DocumentDTO> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = documentRepository.findApprovedDocumentSummaries(limit);
+        } else {
+            PageCursor after = decodeCursor(cursor);
+            rows = documentRepository.findApprovedDocumentSummariesBefore(after.uploadedAt(), after.documentId(), limit);
+        }
+
+
+        return toPage(rows, pageSize);
+    }
+
+
+    /**
+     * Get a page of approved documents of one uploader, newest first
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<DocumentDTO> getDocumentsByUploader(Long uploaderId, String cursor, Integer size) {
+        int pageSize = resolvePageSize(size);
+        Limit limit = Limit.of(pageSize + 1);
+
+
+        List<DocumentDTO> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = documentRepository.findApprovedDocumentSummariesByUploader(uploaderId, limit);
+        } else {
+            PageCursor after = decodeCursor(cursor);
+            rows = documentRepository.findApprovedDocumentSummariesByUploaderBefore(
+                    uploaderId, after.uploadedAt(), after.documentId(), limit);
+        }
+
+
+        return toPage(rows, pageSize);
     }
 
 
@@ -57,7 +118,8 @@ public class DocumentService {
      */
     @Transactional(readOnly = true)
     public DocumentDetailDTO getDocumentById(Long documentId, String username) {
-        Document document = documentRepository.findById(documentId)
+        // Uploader and course are shown in the detail view, fetched in the same statement
+        Document document = documentRepository.findWithUploaderAndCourseByDocumentId(documentId)
                 .orElseThrow(() -> BusinessException.notFound("Document not found with id: " + documentId));
 
 
@@ -71,16 +133,25 @@ public class DocumentService {
 
 
     /**
-     * Get documents by course
+     * Get a page of approved documents of a course, newest first
      */
     @Transactional(readOnly = true)
-    public List<DocumentDTO> getDocumentsByCourse(Long courseId) {
-        List<Document> documents = documentRepository.findByCourse_CourseId(courseId);
-        
-        return documents.stream()
-                .filter(Document::getIsApproved)
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+    public CursorPageDTO<DocumentDTO> getDocumentsByCourse(Long courseId, String cursor, Integer size) {
+        int pageSize = resolvePageSize(size);
+        Limit limit = Limit.of(pageSize + 1);
+
+
+        List<DocumentDTO> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = documentRepository.findApprovedDocumentSummariesByCourse(courseId, limit);
+        } else {
+            PageCursor after = decodeCursor(cursor);
+            rows = documentRepository.findApprovedDocumentSummariesByCourseBefore(
+                    courseId, after.uploadedAt(), after.documentId(), limit);
+        }
+
+
+        return toPage(rows, pageSize);
     }
 
 
@@ -98,9 +169,8 @@ public class DocumentService {
         logger.info("User {} uploading document: {}", username, docTitle);
 
 
-        // Get user
-        User uploader = userRepository.findByUsername(username)
-                .orElseThrow(() -> BusinessException.notFound("User not found: " + username));
+        // Get user (from the request principal; the association only needs a reference)
+        AuthenticatedUser uploader = currentUser.resolve(username);
 
 
         // Get course
@@ -109,28 +179,97 @@ public class DocumentService {
 
 
         // Store file
-        String storedFilename;
+        String storedPath;
         try {
-            storedFilename = fileStorageService.storeFile(file);
+            storedPath = fileStorageService.storeFile(file);
         } catch (Exception e) {
             throw new BusinessException("Failed to store file: " + e.getMessage());
         }
 
 
+        return createDocument(storedPath, docTitle, docDescription, course, documentType, uploader);
+    }
+
+
+    /**
+     * Upload new document from a raw request body. The body is read once and written
+     * straight into the upload store, hashed and size-checked on the way; no
+     * transaction is held while it arrives
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public DocumentDTO uploadDocumentStream(
+            InputStream body,
+            long contentLength,
+            String fileName,
+            String docTitle,
+            String docDescription,
+            Long courseId,
+            String documentType,
+            String username
+    ) {
+        logger.info("User {} streaming upload of document: {}", username, docTitle);
+
+
+        // Everything that can fail is checked before the body is read
+        AuthenticatedUser uploader = currentUser.resolve(username);
+        Course course = courseRepository.findById(courseId)
+                .orElseThrow(() -> BusinessException.notFound("Course not found with id: " + courseId));
+        if (contentLength > maxUploadSize) {
+            throw new BusinessException("File is larger than the limit of " + maxUploadSize + " bytes",
+                    HttpStatus.PAYLOAD_TOO_LARGE);
+        }
+
+
+        FileStorageService.ReceivedFile received;
+        try {
+            received = fileStorageService.receiveFile(body, maxUploadSize);
+        } catch (IOException e) {
+            throw new BusinessException("Failed to store file: " + e.getMessage());
+        }
+
+
+        try {
+            return transactionTemplate.execute(status -> {
+                String storedPath;
+                try {
+                    storedPath = fileStorageService.storeFile(received.path(), fileName, received.sha256());
+                } catch (IOException e) {
+                    throw new BusinessException("Failed to store file: " + e.getMessage());
+                }
+                return createDocument(storedPath, docTitle, docDescription, course, documentType, uploader);
+            });
+        } finally {
+            // Already moved into the store unless something failed
+            fileStorageService.discard(received.path());
+        }
+    }
+
+
+    /**
+     * Create the document for a file already in the store (uploads and upload sessions)
+     */
+    public DocumentDTO createDocument(
+            String storedPath,
+            String docTitle,
+            String docDescription,
+            Course course,
+            String documentType,
+            AuthenticatedUser uploader
+    ) {
         // Create document
         Document document = new Document();
         document.setDocTitle(docTitle);
         document.setDocDescription(docDescription);
-        document.setUploader(uploader);
+        document.setUploader(currentUser.reference(uploader));
         document.setCourse(course);
         document.setDocumentType(documentType);
-        document.setFileUrl("uploads/" + storedFilename);
+        document.setFileUrl(FileStorageService.FILE_URL_PREFIX + storedPath);
         document.setDownloadCount(0);
         document.setUploadedAt(LocalDateTime.now());
 
 
         // Auto-approve if teacher
-        boolean isTeacher = uploader.getRole() == UserRole.TEACHER;
+        boolean isTeacher = uploader.hasRole(UserRole.TEACHER);
         document.setIsApproved(isTeacher);
 
 
@@ -138,7 +277,11 @@ public class DocumentService {
         logger.info("Document uploaded with ID: {}", savedDocument.getDocumentId());
 
 
-        return convertToDTO(savedDocument);
+        // The bytes are durable; everything else about the file happens in the background
+        processingPipeline.submitAfterCommit(savedDocument.getDocumentId());
+
+
+        return convertToDTO(savedDocument, uploader.getUsername());
     }
 
 
@@ -163,7 +306,7 @@ public class DocumentService {
 
 
     /**
-     * Download document (increments counter, returns file for download)
+     * Download document (returns file for download, see recordDownload for the counter)
      */
     public DocumentFileDTO downloadDocument(Long documentId, String username) {
         logger.info("User {} downloading document: {}", username, documentId);
@@ -178,12 +321,16 @@ public class DocumentService {
         }
 
 
-        // Increment download count
-        document.setDownloadCount(document.getDownloadCount() + 1);
-        documentRepository.save(document);
+        return loadDocumentFile(document, true);
+    }
 
 
-        return loadDocumentFile(document, true);
+    /**
+     * Count one download. Called once per download, not once per Range request.
+     * Buffered in memory and written to the database in batches
+     */
+    public void recordDownload(Long documentId) {
+        downloadCountBuffer.increment(documentId);
     }
 
 
@@ -198,55 +345,159 @@ public class DocumentService {
                 .orElseThrow(() -> BusinessException.notFound("Document not found with id: " + documentId));
 
 
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> BusinessException.notFound("User not found: " + username));
+        AuthenticatedUser user = currentUser.resolve(username);
 
 
         // Only uploader or admin can delete
         if (!document.getUploader().getUserId().equals(user.getUserId()) && 
-            user.getRole() != UserRole.ADMIN) {
+            !user.hasRole(UserRole.ADMIN)) {
             throw BusinessException.forbidden("You don't have permission to delete this document");
         }
 
 
+        // Its rating no longer counts towards the uploader's reputation
+        reputationService.applyAverageChange(document.getUploader(), document.getAverageRating(), 0.0);
+        releaseStoredFile(document);
         documentRepository.delete(document);
         logger.info("Document {} deleted", documentId);
     }
 
 
+    /**
+     * Processing state of an uploaded document, for its uploader or an admin
+     */
+    @Transactional(readOnly = true)
+    public DocumentProcessingDTO getProcessingStatus(Long documentId, String username) {
+        Document document = documentRepository.findById(documentId)
+                .orElseThrow(() -> BusinessException.notFound("Document not found with id: " + documentId));
+
+
+        AuthenticatedUser user = currentUser.resolve(username);
+        if (!document.getUploader().getUserId().equals(user.getUserId()) &&
+            !user.hasRole(UserRole.ADMIN)) {
+            throw BusinessException.forbidden("You don't have permission to see this document's processing");
+        }
+
+
+        return DocumentProcessingDTO.builder()
+                .documentId(document.getDocumentId())
+                .status(document.getProcessingStatus().name())
+                .contentTypeStatus(document.getContentTypeStatus().name())
+                .checksumStatus(document.getChecksumStatus().name())
+                .contentType(document.getContentType())
+                .error(document.getProcessingError())
+                .processedAt(document.getProcessedAt())
+                .build();
+    }
+
+
     // ==================== HELPER METHODS ====================
 
 
-    private DocumentFileDTO loadDocumentFile(Document document, boolean isDownload) {
-        try {
-            File file = new File(document.getFileUrl());
-            if (!file.exists()) {
-                throw BusinessException.notFound("File not found: " + document.getFileUrl());
-            }
+    private record PageCursor(LocalDateTime uploadedAt, Long documentId) {}
 
 
-            Path path = file.toPath();
-            ByteArrayResource resource = new ByteArrayResource(Files.readAllBytes(path));
+    // The file may be shared with other documents of the same content
+    private void releaseStoredFile(Document document) {
+        if (document.getFileUrl() != null) {
+            fileStorageService.releaseFile(Paths.get(document.getFileUrl()).getFileName().toString());
+        }
+    }
 
 
-            String contentType = determineContentType(file.getName());
-            String fileName = isDownload ? 
-                    sanitizeFileName(document.getDocTitle()) + getFileExtension(file.getName()) : 
-                    file.getName();
+    private int resolvePageSize(Integer size) {
+        if (size == null) {
+            return defaultPageSize;
+        }
+        if (size < 1) {
+            throw new BusinessException("Page size must be at least 1");
+        }
+        return Math.min(size, maxPageSize);
+    }
 
 
-            return DocumentFileDTO.builder()
-                    .resource(resource)
-                    .fileName(fileName)
-                    .contentType(contentType)
-                    .fileSize(file.length())
-                    .isDownload(isDownload)
-                    .build();
+    /**
+     * Rows were fetched with one extra element to detect whether a further page exists
+     */
+    private CursorPageDTO<DocumentDTO> toPage(List<DocumentDTO> rows, int pageSize) {
+        boolean hasMore = rows.size() > pageSize;
+        List<DocumentDTO> items = hasMore ? rows.subList(0, pageSize) : rows;
 
 
-        } catch (Exception e) {
-            throw new BusinessException("Failed to load file: " + e.getMessage());
+        String nextCursor = null;
+        if (hasMore) {
+            DocumentDTO last = items.get(items.size() - 1);
+            nextCursor = encodeCursor(last.getUploadedAt(), last.getDocumentId());
+        }
+
+
+        return CursorPageDTO.<DocumentDTO>builder()
+                .items(items)
+                .nextCursor(nextCursor)
+                .hasMore(hasMore)
+                .build();
+    }
+
+
+    private String encodeCursor(LocalDateTime uploadedAt, Long documentId) {
+        String raw = uploadedAt + "|" + documentId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+
+    private PageCursor decodeCursor(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new PageCursor(
+                    LocalDateTime.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new BusinessException("Invalid page cursor");
+        }
+    }
+
+
+    private DocumentFileDTO loadDocumentFile(Document document, boolean isDownload) {
+        File file = new File(document.getFileUrl());
+        if (!file.isFile()) {
+            // Moved to the fan-out layout, fileUrl not rewritten yet
+            file = fileStorageService.loadFile(file.getName()).toFile();
         }
+        if (!file.isFile()) {
+            throw BusinessException.notFound("File not found: " + document.getFileUrl());
+        }
+
+
+        // Streamed from disk through a FileChannel, never read into the heap
+        Path path = file.toPath();
+        FileSystemResource resource = new FileSystemResource(path);
+
+
+        long fileSize = file.length();
+        long lastModified = file.lastModified();
+        String entityTag = "\"" + Long.toHexString(fileSize) + "-" + Long.toHexString(lastModified) + "\"";
+
+
+        // Detected by the processing pipeline; the extension until then
+        String contentType = document.getContentType() != null
+                ? document.getContentType()
+                : determineContentType(file.getName());
+        String fileName = isDownload ? 
+                sanitizeFileName(document.getDocTitle()) + getFileExtension(file.getName()) : 
+                file.getName();
+
+
+        return DocumentFileDTO.builder()
+                .resource(resource)
+                .path(path)
+                .fileName(fileName)
+                .contentType(contentType)
+                .fileSize(fileSize)
+                .lastModified(lastModified)
+                .entityTag(entityTag)
+                .isDownload(isDownload)
+                .build();
     }
 
 
@@ -273,10 +524,11 @@ public class DocumentService {
 
 
     private DocumentDTO convertToDTO(Document document) {
-        Double avgRating = ratingRepository.getAverageRatingForDocument(document.getDocumentId());
-        Long totalRatings = ratingRepository.countRatingsForDocument(document.getDocumentId());
+        return convertToDTO(document, document.getUploader().getUsername());
+    }
 
 
+    private DocumentDTO convertToDTO(Document document, String uploaderUsername) {
         return DocumentDTO.builder()
                 .documentId(document.getDocumentId())
                 .docTitle(document.getDocTitle())
@@ -285,32 +537,23 @@ public class DocumentService {
                 .uploadedAt(document.getUploadedAt())
                 .isApproved(document.getIsApproved())
                 .downloadCount(document.getDownloadCount())
-                .averageRating(avgRating != null ? avgRating : 0.0)
-                .totalRatings(totalRatings)
+                .averageRating(document.getAverageRating())
+                .totalRatings(document.getRatingCount())
                 .courseId(document.getCourse().getCourseId())
                 .courseName(document.getCourse().getCourseName())
                 .uploaderId(document.getUploader().getUserId())
-                .uploaderUsername(document.getUploader().getUsername())
+                .uploaderUsername(uploaderUsername)
                 .build();
     }
 
 
     private DocumentDetailDTO convertToDetailDTO(Document document, String username) {
-        Double avgRating = ratingRepository.getAverageRatingForDocument(document.getDocumentId());
-        Long totalRatings = ratingRepository.countRatingsForDocument(document.getDocumentId());
-
-
         // Get user's rating if authenticated
-        Integer userRating = null;
-        if (username != null) {
-            User user = userRepository.findByUsername(username).orElse(null);
-            if (user != null) {
-                userRating = ratingRepository.findByDocumentDocumentIdAndUserUserId(
-                        document.getDocumentId(), user.getUserId())
-                        .map(DocumentRating::getRating)
-                        .orElse(null);
-            }
-        }
+        Integer userRating = currentUser.find(username)
+                .flatMap(user -> ratingRepository.findByDocumentDocumentIdAndUserUserId(
+                        document.getDocumentId(), user.getUserId()))
+                .map(DocumentRating::getRating)
+                .orElse(null);
 
 
         return DocumentDetailDTO.builder()
@@ -322,8 +565,8 @@ public class DocumentService {
                 .uploadedAt(document.getUploadedAt())
                 .isApproved(document.getIsApproved())
                 .downloadCount(document.getDownloadCount())
-                .averageRating(avgRating != null ? avgRating : 0.0)
-                .totalRatings(totalRatings)
+                .averageRating(document.getAverageRating())
+                .totalRatings(document.getRatingCount())
                 .userRating(userRating)
                 .courseId(document.getCourse().getCourseId())
                 .courseName(document.getCourse().getCourseName())
@@ -1,13 +1,13 @@
 package com.edulink.service;
 
 
+import com.edulink.dto.document.DocumentDTO;
 import com.edulink.dto.document.ValidationStatsDTO;
 import com.edulink.exception.BusinessException;
 import com.edulink.model.Document;
-import com.edulink.model.User;
 import com.edulink.model.enums.UserRole;
 import com.edulink.repository.DocumentRepository;
-import com.edulink.repository.UserRepository;
+import com.edulink.security.CurrentUser;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -15,10 +15,8 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 
-import java.util.Comparator;
+import java.nio.file.Paths;
 import java.util.List;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 
 @Service
@@ -31,53 +29,39 @@ public class DocumentValidationService {
 
 
     private final DocumentRepository documentRepository;
-    private final UserRepository userRepository;
+    private final CurrentUser currentUser;
+    private final StudentReputationService reputationService;
+    private final FileStorageService fileStorageService;
 
 
     /**
      * Get all documents for admin validation (pending first)
      */
     @Transactional(readOnly = true)
-    public List<Document> getDocumentsForValidation(String adminUsername) {
+    public List<DocumentDTO> getDocumentsForValidation(String adminUsername) {
         logger.info("Admin {} requesting documents for validation", adminUsername);
         verifyAdminAccess(adminUsername);
 
 
-        List<Document> allDocuments = documentRepository.findAll();
-
-
-        // Separate and sort
-        List<Document> pending = allDocuments.stream()
-                .filter(doc -> !doc.getIsApproved())
-                .sorted(Comparator.comparing(Document::getUploadedAt).reversed())
-                .collect(Collectors.toList());
-
-
-        List<Document> approved = allDocuments.stream()
-                .filter(Document::getIsApproved)
-                .sorted(Comparator.comparing(Document::getUploadedAt).reversed())
-                .collect(Collectors.toList());
-
-
-        return Stream.concat(pending.stream(), approved.stream())
-                .collect(Collectors.toList());
+        // Sorted and joined with course and uploader in the database
+        return documentRepository.findDocumentSummariesForValidation();
     }
 
 
     /**
      * Approve document
      */
-    public Document approveDocument(Long documentId, String adminUsername) {
+    public DocumentDTO approveDocument(Long documentId, String adminUsername) {
         logger.info("Admin {} approving document {}", adminUsername, documentId);
         verifyAdminAccess(adminUsername);
 
 
-        Document document = documentRepository.findById(documentId)
+        Document document = documentRepository.findWithUploaderAndCourseByDocumentId(documentId)
                 .orElseThrow(() -> BusinessException.notFound("Document not found with id: " + documentId));
 
 
         document.setIsApproved(true);
-        return documentRepository.save(document);
+        return convertToDTO(documentRepository.save(document));
     }
 
 
@@ -93,6 +77,11 @@ public class DocumentValidationService {
                 .orElseThrow(() -> BusinessException.notFound("Document not found with id: " + documentId));
 
 
+        // Its rating no longer counts towards the uploader's reputation
+        reputationService.applyAverageChange(document.getUploader(), document.getAverageRating(), 0.0);
+        if (document.getFileUrl() != null) {
+            fileStorageService.releaseFile(Paths.get(document.getFileUrl()).getFileName().toString());
+        }
         documentRepository.delete(document);
     }
 
@@ -117,15 +106,34 @@ public class DocumentValidationService {
     }
 
 
-    private void verifyAdminAccess(String username) {
-        User admin = userRepository.findByUsername(username)
-                .orElseThrow(() -> BusinessException.notFound("User not found: " + username));
+    // Helper methods
 
 
-        if (admin.getRole() != UserRole.ADMIN) {
+    private void verifyAdminAccess(String username) {
+        // Role from the request principal, no user lookup
+        if (!currentUser.resolve(username).hasRole(UserRole.ADMIN)) {
             throw BusinessException.forbidden("Admin role required");
         }
     }
+
+
+    private DocumentDTO convertToDTO(Document document) {
+        return DocumentDTO.builder()
+                .documentId(document.getDocumentId())
+                .docTitle(document.getDocTitle())
+                .docDescription(document.getDocDescription())
+                .documentType(document.getDocumentType())
+                .uploadedAt(document.getUploadedAt())
+                .isApproved(document.getIsApproved())
+                .downloadCount(document.getDownloadCount())
+                .averageRating(document.getAverageRating())
+                .totalRatings(document.getRatingCount())
+                .courseId(document.getCourse().getCourseId())
+                .courseName(document.getCourse().getCourseName())
+                .uploaderId(document.getUploader().getUserId())
+                .uploaderUsername(document.getUploader().getUsername())
+                .build();
+    }
 }
 
 
@@ -0,0 +1,75 @@
+package com.edulink.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Write-behind buffer for document download counts. Downloads only bump an
+ * in-memory striped counter; the totals are written periodically as one batched
+ * relative UPDATE, and once more on shutdown.
+ */
+@Component
+@RequiredArgsConstructor
+public class DownloadCountBuffer {
+
+    private static final Logger logger = LoggerFactory.getLogger(DownloadCountBuffer.class);
+
+    private static final String FLUSH_SQL =
+            "UPDATE documents SET download_count = download_count + ? WHERE document_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    // One LongAdder per document. Entries are never removed: a removal could race with
+    // an increment on the old adder, and the map is bounded by the number of documents.
+    private final Map<Long, LongAdder> pending = new ConcurrentHashMap<>();
+
+    public void increment(Long documentId) {
+        pending.computeIfAbsent(documentId, id -> new LongAdder()).increment();
+    }
+
+    @Scheduled(initialDelayString = "${documents.download-count-flush-interval:5000}",
+               fixedDelayString = "${documents.download-count-flush-interval:5000}")
+    public synchronized void flush() {
+        List<Object[]> batch = new ArrayList<>();
+        for (Map.Entry<Long, LongAdder> entry : pending.entrySet()) {
+            long count = entry.getValue().sumThenReset();
+            if (count > 0) {
+                batch.add(new Object[]{count, entry.getKey()});
+            }
+        }
+
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            // One transaction, so a failed flush leaves no partial increments behind
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(FLUSH_SQL, batch));
+            logger.debug("Flushed download counts for {} documents", batch.size());
+        } catch (RuntimeException e) {
+            logger.warn("Failed to flush download counts for {} documents, will retry: {}",
+                    batch.size(), e.getMessage());
+            for (Object[] row : batch) {
+                pending.computeIfAbsent((Long) row[1], id -> new LongAdder()).add((Long) row[0]);
+            }
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+}
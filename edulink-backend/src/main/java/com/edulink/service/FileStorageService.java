@@ -1,22 +1,88 @@
 package com.edulink.service;
 
+import com.edulink.exception.BusinessException;
+import com.edulink.repository.StoredFileRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Locale;
 import java.util.UUID;
+import java.util.regex.Pattern;
 
+/**
+ * Content-addressed upload store. A file is named after the SHA-256 of its bytes, so
+ * the same content uploaded twice is stored once; stored_files counts the documents
+ * that reference it and the file is removed with the last of them.
+ *
+ * The stored_files row is also the lock for its file: storing takes it before checking
+ * whether the file exists, and a file is only deleted while its row is locked and still
+ * unreferenced, so an upload never reuses a file that is about to be deleted.
+ *
+ * Files uploaded before content addressing keep their random names and have no
+ * stored_files row; releasing one of them deletes it directly.
+ *
+ * Files are spread over two directory levels named after the first four characters of
+ * the filename (ab/cd/abcd...), so no directory grows past a few thousand entries.
+ * UploadLayoutMigration moves files from the older flat layout.
+ */
 @Service
+@RequiredArgsConstructor
+@Transactional
 public class FileStorageService {
 
+    private static final Logger logger = LoggerFactory.getLogger(FileStorageService.class);
+
+    private static final Pattern SAFE_EXTENSION = Pattern.compile("\\.[A-Za-z0-9]{1,10}");
+
+    // Document.fileUrl is the stored path under this prefix
+    public static final String FILE_URL_PREFIX = "uploads/";
+
+    // Not a two-character shard name, so it never collides with the fan-out
+    private static final String PARTS_DIR = ".parts";
+
+    private static final int RECEIVE_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * An upload body written to a part file, with its SHA-256 and size
+     */
+    public record ReceivedFile(Path path, String sha256, long size) {}
+
+    private final StoredFileRepository storedFileRepository;
+    private final TransactionTemplate transactionTemplate;
+
     @Value("${file.upload-dir:uploads}")
     private String uploadDir;
 
+    /**
+     * Store the file, or take a reference to the stored copy of the same content.
+     * Returns the stored path, relative to the upload directory
+     */
     public String storeFile(MultipartFile file) throws IOException {
         // Create uploads directory if it doesn't exist
         Path uploadPath = Paths.get(uploadDir);
@@ -24,25 +90,251 @@ public class FileStorageService {
             Files.createDirectories(uploadPath);
         }
 
-        // Generate unique filename
-        String originalFilename = file.getOriginalFilename();
-        String fileExtension = originalFilename.substring(originalFilename.lastIndexOf("."));
-        String uniqueFilename = UUID.randomUUID().toString() + fileExtension;
+        // Hash first: the multipart is already buffered, so a duplicate costs no write
+        String contentKey = sha256(file) + extensionOf(file.getOriginalFilename());
+
+        // Locks the row: a purge of the same content waits for us, or we for it
+        addReference(contentKey, file.getSize());
+
+        String relativePath = relativePath(contentKey);
+        Path targetLocation = uploadPath.resolve(relativePath);
+        if (Files.exists(targetLocation)) {
+            logger.debug("Content {} already stored, reusing it", contentKey);
+            return relativePath;
+        }
+        Files.createDirectories(targetLocation.getParent());
+
+        // Written beside the target and moved in, so readers never see a partial file
+        Path tempFile = Files.createTempFile(uploadPath, "upload-", ".tmp");
+        try {
+            try (InputStream in = file.getInputStream();
+                 FileChannel out = FileChannel.open(tempFile, StandardOpenOption.WRITE)) {
+                in.transferTo(Channels.newOutputStream(out));
+                // Durable before the document points at it
+                out.force(false);
+            }
+            Files.move(tempFile, targetLocation, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+
+        return relativePath;
+    }
+
+    /**
+     * Write an upload body to a new part file in a single pass, hashing and counting
+     * the bytes as they go by. Rejects the upload as soon as it passes maxSize. The
+     * caller stores the result with storeFile(Path, ...) and discards it either way
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ReceivedFile receiveFile(InputStream body, long maxSize) throws IOException {
+        Path part = partFile(UUID.randomUUID().toString());
+        MessageDigest digest = sha256Digest();
+        long size = 0;
+
+        try (FileChannel out = FileChannel.open(part, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            byte[] chunk = new byte[RECEIVE_BUFFER_SIZE];
+            ByteBuffer buffer = ByteBuffer.wrap(chunk);
+            int read;
+            while ((read = body.read(chunk)) >= 0) {
+                size += read;
+                if (size > maxSize) {
+                    throw new BusinessException("File is larger than the limit of " + maxSize + " bytes",
+                            HttpStatus.PAYLOAD_TOO_LARGE);
+                }
+                digest.update(chunk, 0, read);
+                buffer.clear().limit(read);
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+            }
+            // Durable before the document points at it
+            out.force(false);
+        } catch (IOException | RuntimeException e) {
+            discard(part);
+            throw e;
+        }
+
+        return new ReceivedFile(part, HexFormat.of().formatHex(digest.digest()), size);
+    }
+
+    /**
+     * Delete a part file that was not stored
+     */
+    public void discard(Path part) {
+        try {
+            Files.deleteIfExists(part);
+        } catch (IOException e) {
+            logger.warn("Could not delete part file {}: {}", part, e.getMessage());
+        }
+    }
 
-        // Copy file to upload directory
-        Path targetLocation = uploadPath.resolve(uniqueFilename);
-        Files.copy(file.getInputStream(), targetLocation, StandardCopyOption.REPLACE_EXISTING);
+    /**
+     * Move a fully received file into the store, under the SHA-256 the caller computed
+     * over its bytes. Returns the stored path, relative to the upload directory
+     */
+    public String storeFile(Path source, String originalFilename, String sha256) throws IOException {
+        String contentKey = sha256.toLowerCase(Locale.ROOT) + extensionOf(originalFilename);
+        // Locks the row before the file is looked at, as above
+        addReference(contentKey, Files.size(source));
 
-        return uniqueFilename;
+        String relativePath = relativePath(contentKey);
+        Path targetLocation = Paths.get(uploadDir).resolve(relativePath);
+        if (Files.exists(targetLocation)) {
+            logger.debug("Content {} already stored, reusing it", contentKey);
+            Files.delete(source);
+            return relativePath;
+        }
+        Files.createDirectories(targetLocation.getParent());
+
+        // Same file system as the store, so this is a rename and no bytes are copied
+        Files.move(source, targetLocation, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        return relativePath;
+    }
+
+    /**
+     * Working file of an upload in progress. Kept inside the upload directory, so it can
+     * be moved into the store without copying
+     */
+    public Path partFile(String name) throws IOException {
+        Path partsDir = Paths.get(uploadDir).resolve(PARTS_DIR);
+        Files.createDirectories(partsDir);
+        return partsDir.resolve(name + ".part");
     }
 
+    /**
+     * Location of a stored file, by filename
+     */
     public Path loadFile(String filename) {
+        return Paths.get(uploadDir).resolve(relativePath(filename));
+    }
+
+    /**
+     * Location of a file in the flat layout used before the fan-out
+     */
+    public Path loadFlatFile(String filename) {
         return Paths.get(uploadDir).resolve(filename);
     }
 
+    /**
+     * Path of a stored file relative to the upload directory: ab/cd/abcd...
+     */
+    public String relativePath(String filename) {
+        if (filename.length() < 4) {
+            return filename;
+        }
+        String shard = filename.substring(0, 4).toLowerCase(Locale.ROOT);
+        return shard.substring(0, 2) + "/" + shard.substring(2, 4) + "/" + filename;
+    }
+
+    /**
+     * Drop one reference to a stored file. Once this commits, the file is deleted if
+     * nothing references it any more
+     */
+    public void releaseFile(String filename) {
+        if (storedFileRepository.removeReference(filename) == 0) {
+            // Stored before content addressing: it belongs to this document only
+            deleteAfterCommit(filename);
+            return;
+        }
+        purgeAfterCommit(filename);
+    }
+
     public void deleteFile(String filename) throws IOException {
-        Path filePath = loadFile(filename);
-        Files.deleteIfExists(filePath);
+        Files.deleteIfExists(loadFile(filename));
+        // Not moved to the fan-out yet
+        Files.deleteIfExists(loadFlatFile(filename));
+    }
+
+    // Helper methods
+
+    private void addReference(String contentKey, long sizeBytes) {
+        storedFileRepository.insertIfAbsent(contentKey, sizeBytes);
+        if (storedFileRepository.addReference(contentKey) == 0) {
+            // The last reference was released between the two statements
+            storedFileRepository.insertIfAbsent(contentKey, sizeBytes);
+            storedFileRepository.addReference(contentKey);
+        }
+    }
+
+    private void purgeAfterCommit(String contentKey) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            purgeIfUnreferenced(contentKey);
+            return;
+        }
+        // A rollback keeps the reference, so there is nothing to purge
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                purgeIfUnreferenced(contentKey);
+            }
+        });
+    }
+
+    /**
+     * Delete the row and the file in one short transaction, if the row is still
+     * unreferenced. The file goes while the deleted row is locked: a concurrent store of
+     * the same content waits for this commit, then finds no row and writes the file again
+     */
+    private void purgeIfUnreferenced(String contentKey) {
+        TransactionTemplate purge = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        purge.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        try {
+            purge.executeWithoutResult(status -> {
+                if (storedFileRepository.deleteIfUnreferenced(contentKey) > 0) {
+                    deleteQuietly(contentKey);
+                }
+            });
+        } catch (RuntimeException e) {
+            // The row stays with no references; the next release or upload of it settles it
+            logger.warn("Could not purge stored file {}: {}", contentKey, e.getMessage());
+        }
     }
-}
 
+    private void deleteAfterCommit(String filename) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            deleteQuietly(filename);
+            return;
+        }
+        // A rollback keeps the row, so the file must stay too
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                deleteQuietly(filename);
+            }
+        });
+    }
+
+    private void deleteQuietly(String filename) {
+        try {
+            deleteFile(filename);
+        } catch (IOException e) {
+            logger.warn("Could not delete stored file {}: {}", filename, e.getMessage());
+        }
+    }
+
+    private static MessageDigest sha256Digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private static String sha256(MultipartFile file) throws IOException {
+        MessageDigest digest = sha256Digest();
+        try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    // Only a short alphanumeric extension is kept, the name is never part of the path
+    private static String extensionOf(String originalFilename) {
+        if (originalFilename == null || originalFilename.lastIndexOf('.') < 0) {
+            return "";
+        }
+        String extension = originalFilename.substring(originalFilename.lastIndexOf('.'));
+        return SAFE_EXTENSION.matcher(extension).matches() ? extension.toLowerCase(Locale.ROOT) : "";
+    }
+}
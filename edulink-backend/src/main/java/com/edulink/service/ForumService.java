@@ -6,6 +6,8 @@ import com.edulink.model.*;
 import com.edulink.model.enums.ThreadStatus;
 import com.edulink.model.enums.UserRole;
 import com.edulink.repository.*;
+import com.edulink.security.AuthenticatedUser;
+import com.edulink.security.CurrentUser;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -25,40 +27,34 @@ public class ForumService {
 
     private final ForumThreadRepository threadRepository;
     private final ForumReplyRepository replyRepository;
-    private final UserRepository userRepository;
+    private final CurrentUser currentUser;
     private final CourseRepository courseRepository;
+    private final ForumViewCountBuffer viewCountBuffer;
 
     /**
      * Get all threads (optionally filtered by course)
      */
     @Transactional(readOnly = true)
     public List<ForumThreadDTO> getAllThreads(Long courseId) {
-        List<ForumThread> threads;
-        
         if (courseId != null) {
-            threads = threadRepository.findByCourse_CourseId(courseId);
-        } else {
-            threads = threadRepository.findAll();
+            return threadRepository.findThreadSummariesByCourse(courseId);
         }
-        
-        return threads.stream()
-                .map(this::convertToDTO)
-                .collect(Collectors.toList());
+        return threadRepository.findThreadSummaries();
     }
 
     /**
-     * Get thread by ID with all replies
+     * Get thread by ID with all replies. The view is buffered and written in batches
      */
     @Transactional(readOnly = true)
-    public ForumThreadDetailDTO getThreadById(Long threadId) {
-        ForumThread thread = threadRepository.findById(threadId)
+    public ForumThreadDetailDTO getThreadById(Long threadId, String viewerKey) {
+        // Two statements: thread with author and course, then replies with their authors
+        ForumThread thread = threadRepository.findWithAuthorAndCourseByThreadId(threadId)
                 .orElseThrow(() -> BusinessException.notFound("Thread not found with id: " + threadId));
+        List<ForumReply> replies = replyRepository.findByThreadIdWithUser(threadId);
         
-        // Increment view count
-        thread.setViews(thread.getViews() + 1);
-        threadRepository.save(thread);
+        viewCountBuffer.recordView(threadId, viewerKey);
         
-        return convertToDetailDTO(thread);
+        return convertToDetailDTO(thread, replies);
     }
 
     /**
@@ -67,9 +63,8 @@ public class ForumService {
     public ForumThreadDTO createThread(ForumThreadCreateRequest request, String username) {
         logger.info("User {} creating forum thread: {}", username, request.getTitle());
 
-        // Get author
-        User author = userRepository.findByUsername(username)
-                .orElseThrow(() -> BusinessException.notFound("User not found: " + username));
+        // Author from the request principal; only a reference is needed for the association
+        AuthenticatedUser author = currentUser.resolve(username);
 
         // Get course
         Course course = courseRepository.findById(request.getCourseId())
@@ -79,7 +74,7 @@ public class ForumService {
         ForumThread thread = new ForumThread();
         thread.setTitle(request.getTitle());
         thread.setContent(request.getContent());
-        thread.setAuthor(author);
+        thread.setAuthor(currentUser.reference(author));
         thread.setCourse(course);
         thread.setStatus(ThreadStatus.OPEN);
         thread.setViews(0);
@@ -88,7 +83,7 @@ public class ForumService {
         ForumThread savedThread = threadRepository.save(thread);
         logger.info("Forum thread created with ID: {}", savedThread.getThreadId());
 
-        return convertToDTO(savedThread);
+        return convertToDTO(savedThread, author);
     }
 
     /**
@@ -102,21 +97,21 @@ public class ForumService {
                 .orElseThrow(() -> BusinessException.notFound("Thread not found with id: " + threadId));
 
         // Get user
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> BusinessException.notFound("User not found: " + username));
+        AuthenticatedUser user = currentUser.resolve(username);
 
         // Create reply
         ForumReply reply = new ForumReply();
         reply.setContent(request.getContent());
         reply.setThread(thread);
-        reply.setUser(user);
-        reply.setIsTeacherResponse(user.getRole() == UserRole.TEACHER);
+        reply.setUser(currentUser.reference(user));
+        reply.setIsTeacherResponse(user.hasRole(UserRole.TEACHER));
         reply.setCreatedAt(LocalDateTime.now());
 
         ForumReply savedReply = replyRepository.save(reply);
+        threadRepository.recordReplyAdded(threadId, savedReply.getCreatedAt(), savedReply.getIsTeacherResponse());
         logger.info("Reply created with ID: {}", savedReply.getReplyId());
 
-        return convertReplyToDTO(savedReply);
+        return convertReplyToDTO(savedReply, user);
     }
 
     /**
@@ -125,15 +120,14 @@ public class ForumService {
     public ForumThreadDTO markAsResolved(Long threadId, String username) {
         logger.info("User {} marking thread {} as resolved", username, threadId);
 
-        ForumThread thread = threadRepository.findById(threadId)
+        ForumThread thread = threadRepository.findWithAuthorAndCourseByThreadId(threadId)
                 .orElseThrow(() -> BusinessException.notFound("Thread not found with id: " + threadId));
 
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> BusinessException.notFound("User not found: " + username));
+        AuthenticatedUser user = currentUser.resolve(username);
 
         // Only author or teacher can mark as resolved
         if (!thread.getAuthor().getUserId().equals(user.getUserId()) && 
-            user.getRole() != UserRole.TEACHER) {
+            !user.hasRole(UserRole.TEACHER)) {
             throw BusinessException.forbidden("Only the author or a teacher can mark this thread as resolved");
         }
 
@@ -152,12 +146,11 @@ public class ForumService {
         ForumThread thread = threadRepository.findById(threadId)
                 .orElseThrow(() -> BusinessException.notFound("Thread not found with id: " + threadId));
 
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> BusinessException.notFound("User not found: " + username));
+        AuthenticatedUser user = currentUser.resolve(username);
 
         // Only author or admin can delete
         if (!thread.getAuthor().getUserId().equals(user.getUserId()) && 
-            user.getRole() != UserRole.ADMIN) {
+            !user.hasRole(UserRole.ADMIN)) {
             throw BusinessException.forbidden("Only the author or an admin can delete this thread");
         }
 
@@ -174,16 +167,17 @@ public class ForumService {
         ForumReply reply = replyRepository.findById(replyId)
                 .orElseThrow(() -> BusinessException.notFound("Reply not found with id: " + replyId));
 
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> BusinessException.notFound("User not found: " + username));
+        AuthenticatedUser user = currentUser.resolve(username);
 
         // Only author or admin can delete
         if (!reply.getUser().getUserId().equals(user.getUserId()) && 
-            user.getRole() != UserRole.ADMIN) {
+            !user.hasRole(UserRole.ADMIN)) {
             throw BusinessException.forbidden("Only the author or an admin can delete this reply");
         }
 
+        Long threadId = reply.getThread().getThreadId();
         replyRepository.delete(reply);
+        threadRepository.recordReplyRemoved(threadId);
         logger.info("Reply {} deleted", replyId);
     }
 
@@ -195,21 +189,27 @@ public class ForumService {
      * @return
      */
     private ForumThreadDTO convertToDTO(ForumThread thread) {
-        boolean hasTeacherResponse = thread.getReplies().stream()
-                .anyMatch(reply -> reply.getUser().getRole() == UserRole.TEACHER);
+        return convertToDTO(thread, AuthenticatedUser.from(thread.getAuthor()));
+    }
 
+    /**
+     * Convert ForumThread to ForumThreadDTO, with the author taken from the given
+     * principal so a reference proxy is not loaded just for the DTO
+     */
+    private ForumThreadDTO convertToDTO(ForumThread thread, AuthenticatedUser author) {
         return ForumThreadDTO.builder()
                 .threadId(thread.getThreadId())
                 .title(thread.getTitle())
                 .content(thread.getContent())
                 .status(thread.getStatus().toString())
                 .views(thread.getViews())
-                .replyCount(thread.getReplies().size())
-                .hasTeacherResponse(hasTeacherResponse)
+                .replyCount(thread.getReplyCount())
+                .hasTeacherResponse(thread.getHasTeacherResponse())
                 .createdAt(thread.getCreatedAt())
-                .authorId(thread.getAuthor().getUserId())
-                .authorUsername(thread.getAuthor().getUsername())
-                .authorRole(thread.getAuthor().getRole().toString())
+                .lastActivityAt(thread.getLastActivityAt())
+                .authorId(author.getUserId())
+                .authorUsername(author.getUsername())
+                .authorRole(author.getRole().toString())
                 .courseId(thread.getCourse().getCourseId())
                 .courseName(thread.getCourse().getCourseName())
                 .courseCode(thread.getCourse().getCode())
@@ -217,15 +217,13 @@ public class ForumService {
     }
 
     /**
-     * Convert ForumThread to ForumThreadDetailDTO
+     * Convert ForumThread and its replies to ForumThreadDetailDTO
      * @param thread
+     * @param replyEntities
      * @return
      */
-    private ForumThreadDetailDTO convertToDetailDTO(ForumThread thread) {
-        boolean hasTeacherResponse = thread.getReplies().stream()
-                .anyMatch(reply -> reply.getUser().getRole() == UserRole.TEACHER);
-
-        List<ForumReplyDTO> replies = thread.getReplies().stream()
+    private ForumThreadDetailDTO convertToDetailDTO(ForumThread thread, List<ForumReply> replyEntities) {
+        List<ForumReplyDTO> replies = replyEntities.stream()
                 .map(this::convertReplyToDTO)
                 .collect(Collectors.toList());
 
@@ -235,7 +233,7 @@ public class ForumService {
                 .content(thread.getContent())
                 .status(thread.getStatus().toString())
                 .views(thread.getViews())
-                .hasTeacherResponse(hasTeacherResponse)
+                .hasTeacherResponse(thread.getHasTeacherResponse())
                 .createdAt(thread.getCreatedAt())
                 .authorId(thread.getAuthor().getUserId())
                 .authorUsername(thread.getAuthor().getUsername())
@@ -253,14 +251,18 @@ public class ForumService {
      * @return
      */
     private ForumReplyDTO convertReplyToDTO(ForumReply reply) {
+        return convertReplyToDTO(reply, AuthenticatedUser.from(reply.getUser()));
+    }
+
+    private ForumReplyDTO convertReplyToDTO(ForumReply reply, AuthenticatedUser user) {
         return ForumReplyDTO.builder()
                 .replyId(reply.getReplyId())
                 .content(reply.getContent())
                 .isTeacherResponse(reply.getIsTeacherResponse())
                 .createdAt(reply.getCreatedAt())
-                .userId(reply.getUser().getUserId())
-                .username(reply.getUser().getUsername())
-                .userRole(reply.getUser().getRole().toString())
+                .userId(user.getUserId())
+                .username(user.getUsername())
+                .userRole(user.getRole().toString())
                 .threadId(reply.getThread().getThreadId())
                 .build();
     }
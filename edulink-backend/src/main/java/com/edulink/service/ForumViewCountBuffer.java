@@ -0,0 +1,170 @@
+package com.edulink.service;
+
+import com.edulink.util.HyperLogLog;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Write-behind buffer for forum thread view counts, flushed periodically as one
+ * batched relative UPDATE. In unique-viewer mode each thread keeps a HyperLogLog
+ * sketch of viewer keys and only the growth of its estimate is written, so a user
+ * refreshing the page does not inflate the count.
+ *
+ * Sketches (about 1 KB each) are kept in memory only, for at most
+ * forum.views.max-tracked-threads threads; after a flush the least recently viewed
+ * ones beyond that are dropped. A viewer therefore counts once per thread until the
+ * thread's sketch is dropped or the application restarts, and again after that.
+ */
+@Component
+public class ForumViewCountBuffer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ForumViewCountBuffer.class);
+
+    private static final String FLUSH_SQL =
+            "UPDATE forum_threads SET views = views + ? WHERE thread_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean uniqueViewers;
+    private final int maxTrackedThreads;
+
+    // Plain mode: one LongAdder per thread, drained on every flush. Unique mode puts the
+    // unwritten views of dropped sketches here too
+    private final Map<Long, LongAdder> pendingViews = new ConcurrentHashMap<>();
+
+    // Unique mode: one sketch per recently viewed thread, ordered by a view sequence number
+    private final Map<Long, ViewerSketch> viewerSketches = new ConcurrentHashMap<>();
+    private final AtomicLong viewSequence = new AtomicLong();
+
+    public ForumViewCountBuffer(
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            @Value("${forum.views.unique-viewers:false}") boolean uniqueViewers,
+            @Value("${forum.views.max-tracked-threads:10000}") int maxTrackedThreads
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.uniqueViewers = uniqueViewers;
+        this.maxTrackedThreads = maxTrackedThreads;
+    }
+
+    public void recordView(Long threadId, String viewerKey) {
+        if (uniqueViewers) {
+            ViewerSketch sketch = viewerSketches.computeIfAbsent(threadId, id -> new ViewerSketch());
+            sketch.viewers.add(viewerKey);
+            sketch.lastViewedAt = viewSequence.incrementAndGet();
+        } else {
+            pendingViews.computeIfAbsent(threadId, id -> new LongAdder()).increment();
+        }
+    }
+
+    @Scheduled(initialDelayString = "${forum.views.flush-interval:10000}",
+               fixedDelayString = "${forum.views.flush-interval:10000}")
+    public synchronized void flush() {
+        List<Object[]> counted = drainCounters();
+        List<Object[]> sketched = uniqueViewers ? drainSketches() : List.of();
+        List<Object[]> batch = new ArrayList<>(counted);
+        batch.addAll(sketched);
+
+        if (!batch.isEmpty()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(FLUSH_SQL, batch));
+                logger.debug("Flushed view counts for {} threads", batch.size());
+            } catch (RuntimeException e) {
+                logger.warn("Failed to flush view counts for {} threads, will retry: {}", batch.size(), e.getMessage());
+                restore(counted);
+                return;
+            }
+        }
+
+        for (Object[] row : sketched) {
+            viewerSketches.get((Long) row[1]).flushedEstimate += (Long) row[0];
+        }
+        dropLeastRecentSketches();
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    // Helper methods
+
+    private List<Object[]> drainCounters() {
+        List<Object[]> batch = new ArrayList<>();
+        for (Map.Entry<Long, LongAdder> entry : pendingViews.entrySet()) {
+            long views = entry.getValue().sumThenReset();
+            if (views > 0) {
+                batch.add(new Object[]{views, entry.getKey()});
+            }
+        }
+        return batch;
+    }
+
+    private List<Object[]> drainSketches() {
+        List<Object[]> batch = new ArrayList<>();
+        for (Map.Entry<Long, ViewerSketch> entry : viewerSketches.entrySet()) {
+            ViewerSketch sketch = entry.getValue();
+            long delta = sketch.viewers.estimate() - sketch.flushedEstimate;
+            if (delta > 0) {
+                batch.add(new Object[]{delta, entry.getKey()});
+            }
+        }
+        return batch;
+    }
+
+    /**
+     * Put the counts of a failed flush back. Sketch deltas need nothing: the flushed
+     * estimate was not advanced, so the next flush writes them again
+     */
+    private void restore(List<Object[]> counted) {
+        for (Object[] row : counted) {
+            pendingViews.computeIfAbsent((Long) row[1], id -> new LongAdder()).add((Long) row[0]);
+        }
+    }
+
+    /**
+     * Keep at most maxTrackedThreads sketches. Views a dropped sketch received since
+     * the flush are carried over as plain counts
+     */
+    private void dropLeastRecentSketches() {
+        int excess = viewerSketches.size() - maxTrackedThreads;
+        if (excess <= 0) {
+            return;
+        }
+
+        List<Map.Entry<Long, ViewerSketch>> byLastView = new ArrayList<>(viewerSketches.entrySet());
+        byLastView.sort(Comparator.comparingLong(entry -> entry.getValue().lastViewedAt));
+        for (Map.Entry<Long, ViewerSketch> entry : byLastView.subList(0, excess)) {
+            ViewerSketch sketch = entry.getValue();
+            if (viewerSketches.remove(entry.getKey(), sketch)) {
+                long unwritten = sketch.viewers.estimate() - sketch.flushedEstimate;
+                if (unwritten > 0) {
+                    pendingViews.computeIfAbsent(entry.getKey(), id -> new LongAdder()).add(unwritten);
+                }
+            }
+        }
+        logger.debug("Dropped {} viewer sketches", excess);
+    }
+
+    private static final class ViewerSketch {
+        private final HyperLogLog viewers = new HyperLogLog();
+        private volatile long lastViewedAt;
+        // Estimate already written; only read and advanced under the flush lock
+        private long flushedEstimate;
+    }
+}
@@ -0,0 +1,142 @@
+package com.edulink.service;
+
+import com.edulink.exception.BusinessException;
+import com.edulink.model.RefreshToken;
+import com.edulink.model.User;
+import com.edulink.repository.RefreshTokenRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Rotating refresh tokens. Each exchange marks the presented token as used and issues
+ * a new one in the same family; presenting a used token again means it was stolen or
+ * replayed, so the whole family is revoked and that login has to start over.
+ * Tokens are random values and only their SHA-256 hash is stored.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class RefreshTokenService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final RefreshTokenRepository refreshTokenRepository;
+
+    @Value("${jwt.refresh-token-expiration:604800000}")
+    private long refreshTokenLifetime;
+
+
+    /**
+     * Result of exchanging a refresh token: its owner and the token replacing it
+     */
+    public record Rotation(User user, String refreshToken) {}
+
+
+    /**
+     * Start a new token family for a fresh login
+     */
+    public String issue(User user) {
+        return store(user, UUID.randomUUID().toString());
+    }
+
+
+    /**
+     * Exchange a refresh token for a new one. The reuse check must stay committed
+     * when the exchange is rejected, hence no rollback on BusinessException
+     */
+    @Transactional(noRollbackFor = BusinessException.class)
+    public Rotation rotate(String rawToken) {
+        RefreshToken current = refreshTokenRepository.findByTokenHashWithUser(hash(rawToken))
+                .orElseThrow(() -> BusinessException.unauthorized("Invalid refresh token"));
+
+        if (current.isRevoked()) {
+            throw BusinessException.unauthorized("Refresh token has been revoked");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        if (current.getExpiresAt().isBefore(now)) {
+            throw BusinessException.unauthorized("Refresh token has expired");
+        }
+
+        if (refreshTokenRepository.markUsed(current.getRefreshTokenId(), now) == 0) {
+            refreshTokenRepository.revokeFamily(current.getFamilyId());
+            logger.warn("Refresh token reuse for user {}, revoked token family {}",
+                    current.getUser().getUsername(), current.getFamilyId());
+            throw BusinessException.unauthorized("Refresh token has already been used");
+        }
+
+        User user = current.getUser();
+        return new Rotation(user, store(user, current.getFamilyId()));
+    }
+
+
+    /**
+     * Revoke the family of a refresh token (logout). Unknown tokens are ignored
+     */
+    public void revoke(String rawToken) {
+        refreshTokenRepository.findByTokenHash(hash(rawToken))
+                .ifPresent(token -> refreshTokenRepository.revokeFamily(token.getFamilyId()));
+    }
+
+
+    /**
+     * Drop every refresh token of a user, ending all their sessions once the
+     * current access tokens expire
+     */
+    public void deleteAllForUser(Long userId) {
+        int deleted = refreshTokenRepository.deleteByUserId(userId);
+        logger.debug("Deleted {} refresh tokens of user {}", deleted, userId);
+    }
+
+
+    @Scheduled(initialDelayString = "${jwt.token-blacklist-cleanup:86400000}",
+               fixedDelayString = "${jwt.token-blacklist-cleanup:86400000}")
+    public void purgeExpired() {
+        int deleted = refreshTokenRepository.deleteExpired(LocalDateTime.now());
+        logger.debug("Purged {} expired refresh tokens", deleted);
+    }
+
+
+    // Helper methods
+
+
+    private String store(User user, String familyId) {
+        byte[] bytes = new byte[32];
+        RANDOM.nextBytes(bytes);
+        String rawToken = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        RefreshToken token = new RefreshToken();
+        token.setUser(user);
+        token.setTokenHash(hash(rawToken));
+        token.setFamilyId(familyId);
+        token.setExpiresAt(LocalDateTime.now().plus(Duration.ofMillis(refreshTokenLifetime)));
+        refreshTokenRepository.save(token);
+        return rawToken;
+    }
+
+    private static String hash(String rawToken) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(rawToken.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
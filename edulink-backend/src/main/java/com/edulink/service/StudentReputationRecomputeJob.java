@@ -0,0 +1,21 @@
+package com.edulink.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Nightly set-based recompute of student reputation, which clears any floating
+ * point drift accumulated by the incremental updates.
+ */
+@Component
+@RequiredArgsConstructor
+public class StudentReputationRecomputeJob {
+
+    private final StudentReputationService reputationService;
+
+    @Scheduled(cron = "${students.reputation-recompute-cron:0 30 3 * * *}")
+    public void recompute() {
+        reputationService.recomputeAll();
+    }
+}
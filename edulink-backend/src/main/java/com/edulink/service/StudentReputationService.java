@@ -0,0 +1,49 @@
+package com.edulink.service;
+
+import com.edulink.model.User;
+import com.edulink.model.enums.UserRole;
+import com.edulink.repository.StudentRepository;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Student reputation: 20 points per star of the average rating of each document
+ * the student uploaded. Kept up to date incrementally; recomputeAll rebuilds it.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class StudentReputationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StudentReputationService.class);
+
+    public static final double POINTS_PER_STAR = 20.0;
+
+    private final StudentRepository studentRepository;
+
+    /**
+     * Apply the change of one document's average rating to its uploader's reputation
+     */
+    public void applyAverageChange(User uploader, double previousAverage, double newAverage) {
+        // Delta first: the uploader is usually a lazy reference, only loaded to read its role
+        double delta = (newAverage - previousAverage) * POINTS_PER_STAR;
+        if (delta == 0 || uploader.getRole() != UserRole.STUDENT) {
+            return;
+        }
+
+        studentRepository.addReputationPoints(uploader.getUserId(), delta);
+        logger.debug("Reputation of student {} changed by {} points", uploader.getUsername(), delta);
+    }
+
+    /**
+     * Rebuild every student's reputation in one statement (backfills, drift repair)
+     */
+    public int recomputeAll() {
+        int updated = studentRepository.recomputeReputationPoints(POINTS_PER_STAR);
+        logger.info("Recomputed reputation for {} students", updated);
+        return updated;
+    }
+}
@@ -3,8 +3,11 @@ package com.edulink.service;
 import com.edulink.model.*;
 import com.edulink.repository.*;
 import com.edulink.dto.teacher.*;
+import com.edulink.model.enums.UserRole;
+import com.edulink.security.CurrentUser;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.*;
 import java.util.stream.Collectors;
@@ -19,10 +22,7 @@ public class TeacherService {
     private DocumentRepository documentRepository;
 
     @Autowired
-    private DocumentRatingRepository ratingRepository;
-
-    @Autowired
-    private UserRepository userRepository;
+    private CurrentUser currentUser;
 
     @Autowired
     private ForumThreadRepository forumThreadRepository;
@@ -30,11 +30,9 @@ public class TeacherService {
     /**
      * Get all courses taught by a teacher
      */
+    @Transactional(readOnly = true)
     public List<TeacherCourseDTO> getTeacherCourses(String username) {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found"));
-
-        if (!user.getRole().name().equals("TEACHER")) {
+        if (!currentUser.resolve(username).hasRole(UserRole.TEACHER)) {
             throw new RuntimeException("User is not a teacher");
         }
 
@@ -48,9 +46,9 @@ public class TeacherService {
     /**
      * Get detailed statistics for a specific course
      */
+    @Transactional(readOnly = true)
     public CourseStatisticsDTO getCourseStatistics(Long courseId, String username) {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new RuntimeException("User not found"));
+        currentUser.resolve(username);
 
         Course course = courseRepository.findById(courseId)
                 .orElseThrow(() -> new RuntimeException("Course not found"));
@@ -80,10 +78,7 @@ public class TeacherService {
 
         //calculate average rating
         double avgRating = documents.stream()
-                .mapToDouble(doc -> {
-                    Double rating = ratingRepository.getAverageRatingForDocument(doc.getDocumentId());
-                    return rating != null ? rating : 0.0;
-                })
+                .mapToDouble(Document::getAverageRating)
                 .average()
                 .orElse(0.0);
         stats.setAverageRating(avgRating);
@@ -110,10 +105,10 @@ public class TeacherService {
         dto.setCourseName(course.getCourseName());
         dto.setSemester(course.getSemester());
 
-        int docCount = documentRepository.findByCourse_CourseId(course.getCourseId()).size();
-        dto.setDocumentCount(docCount);
-
+        // Documents come with their uploaders (entity graph), one statement per course
         List<Document> docs = documentRepository.findByCourse_CourseId(course.getCourseId());
+        dto.setDocumentCount(docs.size());
+
         long studentCount = docs.stream()
                 .map(doc -> doc.getUploader())
                 .filter(Objects::nonNull)
@@ -131,9 +126,8 @@ public class TeacherService {
         dto.setDocumentId(doc.getDocumentId());
         dto.setTitle(doc.getDocTitle());
         dto.setDownloads(doc.getDownloadCount());
-        
-        Double rating = ratingRepository.getAverageRatingForDocument(doc.getDocumentId());
-        dto.setRating(rating != null ? rating : 0.0);
+        dto.setRating(doc.getAverageRating());
+        dto.setTotalRatings(doc.getRatingCount());
         
         return dto;
     }
@@ -0,0 +1,184 @@
+package com.edulink.service;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * One-off move of uploads from the flat layout into the ab/cd/ fan-out. Runs at startup
+ * when file.layout-migration.enabled=true, while the application serves requests.
+ *
+ * Documents are walked by id in batches: the files of a batch are moved in parallel,
+ * then their fileUrl values are rewritten in one batched UPDATE. A file is always moved
+ * before its fileUrl, and downloads look in the fan-out when the old path is gone, so
+ * the migration can be stopped and run again at any point.
+ */
+@Component
+public class UploadLayoutMigration implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(UploadLayoutMigration.class);
+
+    private static final String SELECT_SQL =
+            "SELECT document_id, file_url FROM documents " +
+            "WHERE document_id > ? AND file_url IS NOT NULL ORDER BY document_id LIMIT ?";
+
+    private static final String UPDATE_SQL =
+            "UPDATE documents SET file_url = ? WHERE document_id = ?";
+
+    private final FileStorageService fileStorageService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final ExecutorService movers;
+
+    public UploadLayoutMigration(
+            FileStorageService fileStorageService,
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            @Value("${file.layout-migration.enabled:false}") boolean enabled,
+            @Value("${file.layout-migration.threads:4}") int threads,
+            @Value("${file.layout-migration.batch-size:500}") int batchSize) {
+        this.fileStorageService = fileStorageService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.movers = Executors.newFixedThreadPool(threads);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (enabled) {
+            migrate();
+        }
+    }
+
+    /**
+     * Move every flat file referenced by a document. Returns the number of documents
+     * whose fileUrl was rewritten
+     */
+    public int migrate() {
+        logger.info("Moving uploads into the fan-out layout");
+        long afterId = 0;
+        int rewritten = 0;
+        int missing = 0;
+
+        while (true) {
+            List<Map<String, Object>> rows = jdbcTemplate.queryForList(SELECT_SQL, afterId, batchSize);
+            if (rows.isEmpty()) {
+                break;
+            }
+            afterId = ((Number) rows.get(rows.size() - 1).get("document_id")).longValue();
+
+            // Documents with the same content share a file, which is moved once
+            Map<String, List<Long>> documentsByFile = new LinkedHashMap<>();
+            for (Map<String, Object> row : rows) {
+                String fileUrl = (String) row.get("file_url");
+                String filename = Paths.get(fileUrl).getFileName().toString();
+                if (fileUrl.equals(FileStorageService.FILE_URL_PREFIX + filename)) {
+                    documentsByFile.computeIfAbsent(filename, name -> new ArrayList<>())
+                            .add(((Number) row.get("document_id")).longValue());
+                }
+            }
+
+            List<Object[]> batch = new ArrayList<>();
+            for (Map.Entry<String, Boolean> moved : moveAll(documentsByFile.keySet()).entrySet()) {
+                if (!moved.getValue()) {
+                    missing++;
+                    continue;
+                }
+                String fileUrl = FileStorageService.FILE_URL_PREFIX + fileStorageService.relativePath(moved.getKey());
+                for (Long documentId : documentsByFile.get(moved.getKey())) {
+                    batch.add(new Object[]{fileUrl, documentId});
+                }
+            }
+
+            if (!batch.isEmpty()) {
+                transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(UPDATE_SQL, batch));
+                rewritten += batch.size();
+                logger.info("Moved files of {} documents (up to id {})", rewritten, afterId);
+            }
+        }
+
+        if (missing > 0) {
+            logger.warn("{} files referenced by documents could not be moved", missing);
+        }
+        logger.info("Upload layout migration done: {} documents rewritten", rewritten);
+        return rewritten;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        movers.shutdownNow();
+    }
+
+    // Helper methods
+
+    // Filename -> whether it is now in the fan-out
+    private Map<String, Boolean> moveAll(Iterable<String> filenames) {
+        Map<String, Future<Boolean>> moves = new LinkedHashMap<>();
+        for (String filename : filenames) {
+            moves.put(filename, movers.submit(() -> move(filename)));
+        }
+
+        Map<String, Boolean> results = new LinkedHashMap<>();
+        for (Map.Entry<String, Future<Boolean>> move : moves.entrySet()) {
+            try {
+                results.put(move.getKey(), move.getValue().get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Upload layout migration interrupted", e);
+            } catch (ExecutionException e) {
+                logger.warn("Could not move {}: {}", move.getKey(), e.getCause().getMessage());
+                results.put(move.getKey(), false);
+            }
+        }
+        return results;
+    }
+
+    private boolean move(String filename) {
+        Path source = fileStorageService.loadFlatFile(filename);
+        Path target = fileStorageService.loadFile(filename);
+        if (source.equals(target)) {
+            // Too short a name to fan out
+            return true;
+        }
+        try {
+            Files.createDirectories(target.getParent());
+            if (Files.exists(target)) {
+                // Moved by an earlier run, or the same content stored again since
+                Files.deleteIfExists(source);
+                return true;
+            }
+            Files.move(source, target, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (NoSuchFileException e) {
+            return Files.exists(target);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.edulink.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Removes upload sessions that were never completed, with their part files
+ */
+@Component
+@RequiredArgsConstructor
+public class UploadSessionCleanupJob {
+
+    private final UploadSessionService uploadSessionService;
+
+    @Scheduled(initialDelayString = "${documents.upload-sessions.cleanup-interval:3600000}",
+               fixedDelayString = "${documents.upload-sessions.cleanup-interval:3600000}")
+    public void removeExpired() {
+        uploadSessionService.removeExpiredSessions();
+    }
+}
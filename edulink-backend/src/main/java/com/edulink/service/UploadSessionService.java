@@ -0,0 +1,315 @@
+package com.edulink.service;
+
+import com.edulink.dto.document.DocumentDTO;
+import com.edulink.dto.document.UploadSessionCreateRequest;
+import com.edulink.dto.document.UploadSessionDTO;
+import com.edulink.exception.BusinessException;
+import com.edulink.model.UploadSession;
+import com.edulink.repository.CourseRepository;
+import com.edulink.repository.UploadSessionRepository;
+import com.edulink.security.AuthenticatedUser;
+import com.edulink.security.CurrentUser;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Resumable document uploads. A session is created with the document fields and the
+ * file size; the client then PUTs fixed-size chunks in any order, in parallel, and
+ * again after a failure, and completes the session with the SHA-256 of the file.
+ *
+ * Chunks are written at their offset into one preallocated part file and recorded once
+ * they are on disk, so completing needs no reassembly: the part file is copied and hashed
+ * in one pass, and the copy is checked against the checksum and moved into the store by
+ * FileStorageService.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional
+public class UploadSessionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(UploadSessionService.class);
+
+    private final UploadSessionRepository uploadSessionRepository;
+    private final CourseRepository courseRepository;
+    private final CurrentUser currentUser;
+    private final FileStorageService fileStorageService;
+    private final DocumentService documentService;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${documents.upload-sessions.chunk-size:5242880}")
+    private int chunkSize;
+
+    @Value("${documents.upload-sessions.max-size:524288000}")
+    private long maxSize;
+
+    @Value("${documents.upload-sessions.ttl:86400000}")
+    private long ttl;
+
+    /**
+     * Start an upload: validates the document fields and reserves the part file
+     */
+    public UploadSessionDTO createSession(UploadSessionCreateRequest request, String username) {
+        logger.info("User {} starting upload session for: {}", username, request.getDocTitle());
+
+        AuthenticatedUser uploader = currentUser.resolve(username);
+
+        if (!courseRepository.existsById(request.getCourseId())) {
+            throw BusinessException.notFound("Course not found with id: " + request.getCourseId());
+        }
+        if (request.getTotalSize() > maxSize) {
+            throw new BusinessException("File is larger than the limit of " + maxSize + " bytes");
+        }
+
+        UploadSession session = new UploadSession();
+        session.setSessionId(UUID.randomUUID().toString());
+        session.setUploader(currentUser.reference(uploader));
+        session.setCourse(courseRepository.getReferenceById(request.getCourseId()));
+        session.setDocTitle(request.getDocTitle());
+        session.setDocDescription(request.getDocDescription());
+        session.setDocumentType(request.getDocumentType());
+        session.setOriginalFilename(request.getFileName());
+        session.setTotalSize(request.getTotalSize());
+        session.setChunkSize(chunkSize);
+        session.setCreatedAt(LocalDateTime.now());
+        session.setExpiresAt(session.getCreatedAt().plusNanos(ttl * 1_000_000));
+        uploadSessionRepository.save(session);
+
+        // Sized up front (sparse), so chunks can be written at any offset
+        try (RandomAccessFile part = new RandomAccessFile(fileStorageService.partFile(session.getSessionId()).toFile(), "rw")) {
+            part.setLength(session.getTotalSize());
+        } catch (IOException e) {
+            throw new BusinessException("Failed to create upload: " + e.getMessage());
+        }
+
+        return convertToDTO(session, List.of());
+    }
+
+    /**
+     * Session state, with the chunks received so far
+     */
+    @Transactional(readOnly = true)
+    public UploadSessionDTO getSession(String sessionId, String username) {
+        UploadSession session = findOwnSession(sessionId, username);
+        return convertToDTO(session, uploadSessionRepository.findReceivedChunks(sessionId));
+    }
+
+    /**
+     * Write one chunk. The body is streamed to its offset in the part file and synced
+     * before the chunk is recorded; sending a chunk again overwrites it. No transaction
+     * is held while the bytes arrive
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public UploadSessionDTO writeChunk(String sessionId, int chunkIndex, InputStream body, long contentLength, String username) {
+        UploadSession session = findOwnSession(sessionId, username);
+
+        if (chunkIndex < 0 || chunkIndex >= session.getChunkCount()) {
+            throw new BusinessException("Chunk index must be between 0 and " + (session.getChunkCount() - 1));
+        }
+        long expectedLength = session.getChunkLength(chunkIndex);
+        if (contentLength >= 0 && contentLength != expectedLength) {
+            throw new BusinessException("Chunk " + chunkIndex + " must be " + expectedLength + " bytes");
+        }
+
+        try {
+            Path part = fileStorageService.partFile(sessionId);
+            long written = writeAt(part, (long) chunkIndex * session.getChunkSize(), expectedLength, body);
+            if (written != expectedLength) {
+                throw new BusinessException("Chunk " + chunkIndex + " must be " + expectedLength + " bytes");
+            }
+        } catch (IOException e) {
+            throw new BusinessException("Failed to store chunk " + chunkIndex + ": " + e.getMessage());
+        }
+
+        try {
+            return transactionTemplate.execute(status -> {
+                uploadSessionRepository.recordChunk(sessionId, chunkIndex);
+                return convertToDTO(session, uploadSessionRepository.findReceivedChunks(sessionId));
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Completed or aborted while the chunk was being written
+            throw BusinessException.notFound("Upload session not found: " + sessionId);
+        }
+    }
+
+    /**
+     * Finish the upload: every chunk must be there and the file must match the
+     * checksum. Creates the document; a failed check leaves the session as it was.
+     *
+     * The part file is copied into a file of its own while it is hashed, and that copy
+     * is what gets checked and stored: a chunk write still in flight can only reach the
+     * part file, never the stored content. The copy is made before any transaction, so
+     * no connection is held while a large file is read
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public DocumentDTO completeSession(String sessionId, String sha256, String username) {
+        logger.info("User {} completing upload session {}", username, sessionId);
+
+        AuthenticatedUser uploader = currentUser.resolve(username);
+        UploadSession session = findOwnSession(sessionId, uploader);
+
+        List<Integer> missing = missingChunks(session);
+        if (!missing.isEmpty()) {
+            throw BusinessException.conflict("Upload is missing chunks: " + missing);
+        }
+
+        FileStorageService.ReceivedFile copy;
+        try (InputStream part = Files.newInputStream(fileStorageService.partFile(sessionId))) {
+            copy = fileStorageService.receiveFile(part, session.getTotalSize());
+        } catch (IOException e) {
+            throw new BusinessException("Failed to store file: " + e.getMessage());
+        }
+
+        try {
+            if (!copy.sha256().equalsIgnoreCase(sha256)) {
+                throw new BusinessException("Checksum mismatch: the uploaded file has SHA-256 " + copy.sha256());
+            }
+
+            DocumentDTO document = transactionTemplate.execute(status -> {
+                // Only one completion gets the session; a concurrent one waits here and then fails
+                if (uploadSessionRepository.claim(sessionId) == 0) {
+                    throw BusinessException.notFound("Upload session not found: " + sessionId);
+                }
+
+                String storedPath;
+                try {
+                    storedPath = fileStorageService.storeFile(copy.path(), session.getOriginalFilename(), copy.sha256());
+                } catch (IOException e) {
+                    throw new BusinessException("Failed to store file: " + e.getMessage());
+                }
+
+                return documentService.createDocument(storedPath, session.getDocTitle(), session.getDocDescription(),
+                        courseRepository.getReferenceById(session.getCourse().getCourseId()),
+                        session.getDocumentType(), uploader);
+            });
+
+            deletePartFile(sessionId);
+            return document;
+        } finally {
+            // Already gone once stored
+            fileStorageService.discard(copy.path());
+        }
+    }
+
+    /**
+     * Abandon the upload and free its part file
+     */
+    public void abortSession(String sessionId, String username) {
+        logger.info("User {} aborting upload session {}", username, sessionId);
+
+        findOwnSession(sessionId, username);
+        if (uploadSessionRepository.claim(sessionId) > 0) {
+            deletePartFile(sessionId);
+        }
+    }
+
+    /**
+     * Drop sessions past their expiry, with their part files
+     */
+    public int removeExpiredSessions() {
+        int removed = 0;
+        for (String sessionId : uploadSessionRepository.findExpiredSessionIds(LocalDateTime.now())) {
+            if (uploadSessionRepository.claim(sessionId) > 0) {
+                deletePartFile(sessionId);
+                removed++;
+            }
+        }
+        if (removed > 0) {
+            logger.info("Removed {} expired upload sessions", removed);
+        }
+        return removed;
+    }
+
+    // Helper methods
+
+    private UploadSession findOwnSession(String sessionId, String username) {
+        return findOwnSession(sessionId, currentUser.resolve(username));
+    }
+
+    private UploadSession findOwnSession(String sessionId, AuthenticatedUser user) {
+        UploadSession session = uploadSessionRepository.findById(sessionId)
+                .orElseThrow(() -> BusinessException.notFound("Upload session not found: " + sessionId));
+
+        // The id of the lazy uploader is known without loading it
+        if (!session.getUploader().getUserId().equals(user.getUserId())) {
+            throw BusinessException.forbidden("This upload belongs to another user");
+        }
+        return session;
+    }
+
+    private List<Integer> missingChunks(UploadSession session) {
+        Set<Integer> received = new HashSet<>(uploadSessionRepository.findReceivedChunks(session.getSessionId()));
+        List<Integer> missing = new ArrayList<>();
+        for (int i = 0; i < session.getChunkCount(); i++) {
+            if (!received.contains(i)) {
+                missing.add(i);
+            }
+        }
+        return missing;
+    }
+
+    /**
+     * Copy up to length bytes of the body to [offset, offset + length) of the file.
+     * Returns the bytes the body actually had, which is more than length when it is too long
+     */
+    private static long writeAt(Path file, long offset, long length, InputStream body) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE);
+             ReadableByteChannel in = Channels.newChannel(body)) {
+            long written = 0;
+            while (written < length) {
+                long transferred = channel.transferFrom(in, offset + written, length - written);
+                if (transferred <= 0) {
+                    return written;
+                }
+                written += transferred;
+            }
+            if (in.read(ByteBuffer.allocate(1)) > 0) {
+                return written + 1;
+            }
+            channel.force(false);
+            return written;
+        }
+    }
+
+    private void deletePartFile(String sessionId) {
+        try {
+            Files.deleteIfExists(fileStorageService.partFile(sessionId));
+        } catch (IOException e) {
+            logger.warn("Could not delete part file of upload session {}: {}", sessionId, e.getMessage());
+        }
+    }
+
+    private UploadSessionDTO convertToDTO(UploadSession session, List<Integer> receivedChunks) {
+        return UploadSessionDTO.builder()
+                .sessionId(session.getSessionId())
+                .totalSize(session.getTotalSize())
+                .chunkSize(session.getChunkSize())
+                .chunkCount(session.getChunkCount())
+                .receivedChunks(receivedChunks)
+                .expiresAt(session.getExpiresAt())
+                .build();
+    }
+}
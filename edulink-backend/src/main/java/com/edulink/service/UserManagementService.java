@@ -5,6 +5,8 @@ import com.edulink.exception.BusinessException;
 import com.edulink.model.*;
 import com.edulink.model.enums.UserRole;
 import com.edulink.repository.*;
+import com.edulink.security.CurrentUser;
+import com.edulink.security.JwtPrincipalResolver;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -24,11 +26,12 @@ public class UserManagementService {
     private static final Logger logger = LoggerFactory.getLogger(UserManagementService.class);
 
     private final UserRepository userRepository;
-    private final StudentRepository studentRepository;
-    private final TeacherRepository teacherRepository;
-    private final AdminRepository adminRepository;
     private final DocumentRepository documentRepository;
     private final PasswordEncoder passwordEncoder;
+    private final StudentReputationService reputationService;
+    private final JwtPrincipalResolver principalResolver;
+    private final RefreshTokenService refreshTokenService;
+    private final CurrentUser currentUser;
 
     /**
      * Get all users
@@ -91,6 +94,8 @@ public class UserManagementService {
 
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> BusinessException.notFound("User not found with id: " + userId));
+        String previousUsername = user.getUsername();
+        UserRole previousRole = user.getRole();
 
         if (request.getEmail() != null && !request.getEmail().isEmpty()) {
             userRepository.findByEmail(request.getEmail()).ifPresent(existing -> {
@@ -114,7 +119,18 @@ public class UserManagementService {
             user = handleRoleChange(user, request.getRole());
         }
 
+        // Tokens already issued carry the old username/role claims
+        boolean claimsChanged = !previousUsername.equals(user.getUsername()) || previousRole != user.getRole();
+        if (claimsChanged) {
+            user.setTokensValidAfter(LocalDateTime.now());
+        }
+
         User savedUser = userRepository.save(user);
+
+        if (claimsChanged) {
+            principalResolver.invalidate(userId, previousUsername);
+        }
+
         return convertToDTO(savedUser);
     }
 
@@ -136,7 +152,9 @@ public class UserManagementService {
             throw BusinessException.forbidden("Cannot delete the last admin");
         }
 
+        refreshTokenService.deleteAllForUser(userId);
         userRepository.delete(user);
+        principalResolver.invalidate(userId, user.getUsername());
         logger.info("User {} deleted", userId);
     }
 
@@ -153,6 +171,8 @@ public class UserManagementService {
 
         user.setPassword(passwordEncoder.encode(newPassword));
         userRepository.save(user);
+        // A password reset ends existing sessions
+        refreshTokenService.deleteAllForUser(userId);
     }
 
     /**
@@ -188,13 +208,22 @@ public class UserManagementService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Recompute every student's reputation from the document ratings (backfill)
+     */
+
+    public int recomputeReputation(String adminUsername) {
+        logger.info("Admin {} recomputing student reputation", adminUsername);
+        verifyAdminAccess(adminUsername);
+
+        return reputationService.recomputeAll();
+    }
+
     // Helper methods
 
     private void verifyAdminAccess(String username) {
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> BusinessException.notFound("User not found: " + username));
-
-        if (user.getRole() != UserRole.ADMIN) {
+        // Role from the request principal, no user lookup
+        if (!currentUser.resolve(username).hasRole(UserRole.ADMIN)) {
             throw BusinessException.forbidden("Admin role required");
         }
     }
@@ -230,49 +259,12 @@ public class UserManagementService {
     }
 
     private User handleRoleChange(User user, UserRole newRole) {
+        // The role is the entity type (single-table discriminator): one UPDATE, then re-read
         Long userId = user.getUserId();
-        UserRole oldRole = user.getRole();
-
-        // Delete old role entity
-        switch (oldRole) {
-            case STUDENT: studentRepository.deleteById(userId); break;
-            case TEACHER: teacherRepository.deleteById(userId); break;
-            case ADMIN: adminRepository.deleteById(userId); break;
-        }
+        userRepository.changeRole(userId, newRole.name());
 
-        // Create new role entity
-        User newUser;
-        switch (newRole) {
-            case STUDENT:
-                Student student = new Student();
-                copyUserFields(user, student);
-                student.setReputationPoints(0.0);
-                newUser = studentRepository.save(student);
-                break;
-            case TEACHER:
-                Teacher teacher = new Teacher();
-                copyUserFields(user, teacher);
-                newUser = teacherRepository.save(teacher);
-                break;
-            case ADMIN:
-                Admin admin = new Admin();
-                copyUserFields(user, admin);
-                newUser = adminRepository.save(admin);
-                break;
-            default:
-                throw new BusinessException("Invalid role: " + newRole);
-        }
-
-        return newUser;
-    }
-
-    private void copyUserFields(User source, User target) {
-        target.setUserId(source.getUserId());
-        target.setUsername(source.getUsername());
-        target.setEmail(source.getEmail());
-        target.setPassword(source.getPassword());
-        target.setRole(source.getRole());
-        target.setCreatedAt(source.getCreatedAt());
+        return userRepository.findById(userId)
+                .orElseThrow(() -> BusinessException.notFound("User not found with id: " + userId));
     }
 
     private UserDTO convertToDTO(User user) {
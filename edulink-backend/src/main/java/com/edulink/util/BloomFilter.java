@@ -0,0 +1,70 @@
+package com.edulink.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Thread-safe Bloom filter over strings. mightContain() never gives a false negative;
+ * false positives happen at roughly the configured rate while no more than the
+ * expected number of items has been added. Lookups and additions are lock-free.
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bitCount;
+    private final int hashCount;
+
+    public BloomFilter(int expectedItems, double falsePositiveRate) {
+        if (expectedItems < 1) {
+            throw new IllegalArgumentException("Expected items must be at least 1");
+        }
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("False positive rate must be between 0 and 1");
+        }
+
+        // Optimal sizing: m = -n ln p / (ln 2)^2 bits and k = m/n ln 2 hash functions
+        long bits = (long) Math.ceil(-expectedItems * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int wordCount = (int) Math.max(1, (bits + 63) / 64);
+        this.words = new AtomicLongArray(wordCount);
+        this.bitCount = (long) wordCount * 64;
+        this.hashCount = (int) Math.max(1, Math.round((double) bitCount / expectedItems * Math.log(2)));
+    }
+
+    public void add(String item) {
+        long hash = Hashing.hash64(item);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = bitIndex(hash, i);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current = words.get(word);
+            while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask)) {
+                current = words.get(word);
+            }
+        }
+    }
+
+    /**
+     * False means the item was definitely never added
+     */
+    public boolean mightContain(String item) {
+        long hash = Hashing.hash64(item);
+        for (int i = 0; i < hashCount; i++) {
+            long bit = bitIndex(hash, i);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Helper methods
+
+    /**
+     * i-th probe position, derived from the two halves of one 64-bit hash
+     * (Kirsch-Mitzenmacher double hashing)
+     */
+    private long bitIndex(long hash, int i) {
+        long h1 = hash & 0xffffffffL;
+        long h2 = hash >>> 32;
+        return ((h1 + i * h2) & Long.MAX_VALUE) % bitCount;
+    }
+}
@@ -0,0 +1,31 @@
+package com.edulink.util;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Hash function shared by the probabilistic structures in this package
+ */
+final class Hashing {
+
+    private Hashing() {
+    }
+
+    /**
+     * 64-bit FNV-1a over the UTF-8 bytes, finished with the MurmurHash3 fmix64 mixer
+     * so that every output bit depends on every input bit
+     */
+    static long hash64(String item) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : item.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
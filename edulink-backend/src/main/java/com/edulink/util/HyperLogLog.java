@@ -0,0 +1,76 @@
+package com.edulink.util;
+
+/**
+ * Small thread-safe HyperLogLog sketch for approximate distinct counting.
+ * Uses 2^precision one-byte registers; with the default precision of 10 that is
+ * 1 KB per sketch and a standard error of about 3%.
+ */
+public class HyperLogLog {
+
+    public static final int DEFAULT_PRECISION = 10;
+
+    private final int precision;
+    private final byte[] registers;
+
+    public HyperLogLog() {
+        this(DEFAULT_PRECISION);
+    }
+
+    public HyperLogLog(int precision) {
+        if (precision < 4 || precision > 16) {
+            throw new IllegalArgumentException("Precision must be between 4 and 16");
+        }
+        this.precision = precision;
+        this.registers = new byte[1 << precision];
+    }
+
+    /**
+     * Add an item. Returns true if the sketch changed
+     */
+    public synchronized boolean add(String item) {
+        long hash = Hashing.hash64(item);
+        int index = (int) (hash >>> (64 - precision));
+        // Rank of the first 1-bit in the remaining bits, capped when they are all zero
+        byte rank = (byte) (Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1);
+
+        if (rank > registers[index]) {
+            registers[index] = rank;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Estimated number of distinct items added so far
+     */
+    public synchronized long estimate() {
+        int m = registers.length;
+        double sum = 0;
+        int zeroRegisters = 0;
+        for (byte register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeroRegisters++;
+            }
+        }
+
+        double estimate = alpha(m) * m * m / sum;
+
+        // Small range correction (linear counting)
+        if (estimate <= 2.5 * m && zeroRegisters > 0) {
+            estimate = m * Math.log((double) m / zeroRegisters);
+        }
+        return Math.round(estimate);
+    }
+
+    // Helper methods
+
+    private static double alpha(int m) {
+        switch (m) {
+            case 16: return 0.673;
+            case 32: return 0.697;
+            case 64: return 0.709;
+            default: return 0.7213 / (1 + 1.079 / m);
+        }
+    }
+}
@@ -0,0 +1,31 @@
+-- Rating aggregates on documents (maintained by DocumentRatingService), which were
+-- added to the entity after the V1 baseline. Databases baselined at version 1 get the
+-- columns here; they are backfilled from document_ratings.
+
+ALTER TABLE documents ADD COLUMN IF NOT EXISTS rating_sum BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE documents ADD COLUMN IF NOT EXISTS rating_count BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE documents ADD COLUMN IF NOT EXISTS one_star_count BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE documents ADD COLUMN IF NOT EXISTS two_star_count BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE documents ADD COLUMN IF NOT EXISTS three_star_count BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE documents ADD COLUMN IF NOT EXISTS four_star_count BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE documents ADD COLUMN IF NOT EXISTS five_star_count BIGINT NOT NULL DEFAULT 0;
+
+UPDATE documents d SET
+    rating_sum = r.rating_sum,
+    rating_count = r.rating_count,
+    one_star_count = r.one_star_count,
+    two_star_count = r.two_star_count,
+    three_star_count = r.three_star_count,
+    four_star_count = r.four_star_count,
+    five_star_count = r.five_star_count
+FROM (SELECT document_id,
+             SUM(rating) AS rating_sum,
+             COUNT(*) AS rating_count,
+             COUNT(*) FILTER (WHERE rating = 1) AS one_star_count,
+             COUNT(*) FILTER (WHERE rating = 2) AS two_star_count,
+             COUNT(*) FILTER (WHERE rating = 3) AS three_star_count,
+             COUNT(*) FILTER (WHERE rating = 4) AS four_star_count,
+             COUNT(*) FILTER (WHERE rating = 5) AS five_star_count
+      FROM document_ratings
+      GROUP BY document_id) r
+WHERE r.document_id = d.document_id;
@@ -0,0 +1,5 @@
+-- Tokens issued up to tokens_valid_after no longer carry trusted claims. Set when a
+-- user's role or username changes, so the invalidation survives restarts and applies
+-- on every node (JwtPrincipalResolver). NULL: never invalidated.
+
+ALTER TABLE users ADD COLUMN IF NOT EXISTS tokens_valid_after TIMESTAMP(6);
@@ -0,0 +1,22 @@
+-- Contract step of V5, part 1. Run only once no instance uses the JOINED user mapping:
+-- for a rolling deploy from before V5, roll out with spring.flyway.target=11 first.
+
+-- Students created by JOINED instances after V5 only have a students row
+UPDATE users
+SET reputation_points = (SELECT s.reputation_points FROM students s WHERE s.user_id = users.user_id)
+WHERE role = 'STUDENT' AND reputation_points IS NULL
+  AND user_id IN (SELECT user_id FROM students);
+
+UPDATE users
+SET reputation_points = 0
+WHERE role = 'STUDENT' AND reputation_points IS NULL;
+
+UPDATE users
+SET reputation_points = NULL
+WHERE role <> 'STUDENT' AND reputation_points IS NOT NULL;
+
+-- NOT VALID: existing rows are not scanned here, so the lock is only held briefly.
+-- V13 validates them in its own transaction
+ALTER TABLE users ADD CONSTRAINT ck_users_student_reputation
+    CHECK ((role = 'STUDENT' AND reputation_points IS NOT NULL) OR (role <> 'STUDENT' AND reputation_points IS NULL))
+    NOT VALID;
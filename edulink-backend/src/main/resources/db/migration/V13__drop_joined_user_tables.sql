@@ -0,0 +1,8 @@
+-- Contract step of V5, part 2 (see V12). Validating scans users without blocking
+-- reads or writes; the per-role tables are no longer mapped.
+
+ALTER TABLE users VALIDATE CONSTRAINT ck_users_student_reputation;
+
+DROP TABLE IF EXISTS students;
+DROP TABLE IF EXISTS teachers;
+DROP TABLE IF EXISTS admin;
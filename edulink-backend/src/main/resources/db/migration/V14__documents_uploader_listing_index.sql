@@ -0,0 +1,4 @@
+-- Approved documents of an uploader (profile page), keyset-paginated on
+-- (uploaded_at, document_id) newest first, like the course listing in V2.
+CREATE INDEX IF NOT EXISTS idx_documents_uploader_approved_uploaded
+    ON documents (uploader_id, is_approved, uploaded_at DESC, document_id DESC);
@@ -0,0 +1,87 @@
+-- Baseline: schema as previously created by spring.jpa.hibernate.ddl-auto=update.
+-- Databases that already have these tables are baselined at version 1 and skip this script
+-- (spring.flyway.baseline-on-migrate=true).
+
+CREATE TABLE users (
+    user_id     BIGSERIAL    PRIMARY KEY,
+    email       VARCHAR(255) NOT NULL UNIQUE,
+    username    VARCHAR(255) NOT NULL UNIQUE,
+    password    VARCHAR(255) NOT NULL,
+    role        VARCHAR(255) NOT NULL CHECK (role IN ('STUDENT', 'TEACHER', 'ADMIN')),
+    created_at  TIMESTAMP(6) NOT NULL
+);
+
+CREATE TABLE students (
+    user_id           BIGINT    PRIMARY KEY REFERENCES users (user_id),
+    reputation_points FLOAT(53) NOT NULL
+);
+
+CREATE TABLE teachers (
+    user_id BIGINT PRIMARY KEY REFERENCES users (user_id)
+);
+
+CREATE TABLE admin (
+    user_id BIGINT PRIMARY KEY REFERENCES users (user_id)
+);
+
+CREATE TABLE courses (
+    course_id    BIGSERIAL    PRIMARY KEY,
+    course_name  VARCHAR(255) NOT NULL,
+    code         VARCHAR(255) NOT NULL UNIQUE,
+    teacher_name VARCHAR(255),
+    semester     INTEGER
+);
+
+CREATE TABLE documents (
+    document_id      BIGSERIAL    PRIMARY KEY,
+    uploader_id      BIGINT       NOT NULL REFERENCES users (user_id),
+    course_id        BIGINT       NOT NULL REFERENCES courses (course_id),
+    doc_title        VARCHAR(255) NOT NULL,
+    doc_description  TEXT,
+    download_count   INTEGER,
+    is_approved      BOOLEAN,
+    uploaded_at      TIMESTAMP(6) NOT NULL,
+    file_url         VARCHAR(255),
+    document_type    VARCHAR(255)
+);
+
+CREATE TABLE document_ratings (
+    rating_id   BIGSERIAL    PRIMARY KEY,
+    document_id BIGINT       NOT NULL REFERENCES documents (document_id),
+    user_id     BIGINT       NOT NULL REFERENCES users (user_id),
+    rating      INTEGER      NOT NULL,
+    rated_at    TIMESTAMP(6) NOT NULL,
+    UNIQUE (document_id, user_id)
+);
+
+CREATE TABLE forum_threads (
+    thread_id  BIGSERIAL    PRIMARY KEY,
+    title      VARCHAR(255) NOT NULL,
+    content    TEXT         NOT NULL,
+    author_id  BIGINT       NOT NULL REFERENCES users (user_id),
+    course_id  BIGINT       NOT NULL REFERENCES courses (course_id),
+    status     VARCHAR(255) NOT NULL CHECK (status IN ('OPEN', 'CLOSED', 'RESOLVED')),
+    views      INTEGER      NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL
+);
+
+CREATE TABLE forum_replies (
+    reply_id            BIGSERIAL    PRIMARY KEY,
+    content             TEXT         NOT NULL,
+    thread_id           BIGINT       NOT NULL REFERENCES forum_threads (thread_id),
+    user_id             BIGINT       NOT NULL REFERENCES users (user_id),
+    is_teacher_response BOOLEAN      NOT NULL,
+    created_at          TIMESTAMP(6) NOT NULL
+);
+
+CREATE TABLE activities (
+    activity_id   BIGSERIAL    PRIMARY KEY,
+    title         VARCHAR(255) NOT NULL,
+    description   TEXT,
+    organizer_id  BIGINT       NOT NULL REFERENCES users (user_id),
+    activity_type VARCHAR(255) NOT NULL CHECK (activity_type IN ('EVENT', 'STUDY_SESSION', 'CLUB', 'SPORT')),
+    activity_date TIMESTAMP(6),
+    location      VARCHAR(255),
+    attendance    INTEGER,
+    created_at    TIMESTAMP(6) NOT NULL
+);
@@ -0,0 +1,10 @@
+-- Approved-document listings filter on (course_id, is_approved) and keyset-paginate
+-- on (uploaded_at, document_id), newest first. These indexes serve the filter and the
+-- ORDER BY directly, so pending uploads are never read for a listing page.
+-- IF NOT EXISTS: databases created by ddl-auto may already have them.
+
+CREATE INDEX IF NOT EXISTS idx_documents_course_approved_uploaded
+    ON documents (course_id, is_approved, uploaded_at DESC, document_id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_documents_approved_uploaded
+    ON documents (is_approved, uploaded_at DESC, document_id DESC);
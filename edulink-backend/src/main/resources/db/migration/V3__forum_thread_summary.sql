@@ -0,0 +1,19 @@
+-- Reply summary columns on forum_threads, so thread listings no longer load every
+-- reply. Maintained by ForumService on reply create/delete; backfilled here.
+
+ALTER TABLE forum_threads ADD COLUMN IF NOT EXISTS reply_count INTEGER NOT NULL DEFAULT 0;
+ALTER TABLE forum_threads ADD COLUMN IF NOT EXISTS has_teacher_response BOOLEAN NOT NULL DEFAULT FALSE;
+ALTER TABLE forum_threads ADD COLUMN IF NOT EXISTS last_activity_at TIMESTAMP(6);
+
+UPDATE forum_threads t SET
+    reply_count = (SELECT COUNT(*) FROM forum_replies r WHERE r.thread_id = t.thread_id),
+    has_teacher_response = EXISTS (SELECT 1 FROM forum_replies r
+                                   WHERE r.thread_id = t.thread_id AND r.is_teacher_response),
+    last_activity_at = COALESCE((SELECT MAX(r.created_at) FROM forum_replies r
+                                 WHERE r.thread_id = t.thread_id), t.created_at);
+
+ALTER TABLE forum_threads ALTER COLUMN last_activity_at SET NOT NULL;
+
+-- Course thread listings, most recently active first
+CREATE INDEX IF NOT EXISTS idx_forum_threads_course_activity
+    ON forum_threads (course_id, last_activity_at DESC, thread_id DESC);
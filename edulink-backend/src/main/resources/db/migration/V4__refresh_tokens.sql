@@ -0,0 +1,18 @@
+-- Refresh tokens for /api/auth/refresh. Only the SHA-256 hash of a token is stored.
+-- Tokens rotated from the same login share a family_id; presenting a token that was
+-- already rotated (used_at set) revokes the whole family.
+
+CREATE TABLE IF NOT EXISTS refresh_tokens (
+    refresh_token_id BIGSERIAL    PRIMARY KEY,
+    user_id          BIGINT       NOT NULL REFERENCES users (user_id) ON DELETE CASCADE,
+    token_hash       VARCHAR(64)  NOT NULL UNIQUE,
+    family_id        VARCHAR(36)  NOT NULL,
+    created_at       TIMESTAMP(6) NOT NULL,
+    expires_at       TIMESTAMP(6) NOT NULL,
+    used_at          TIMESTAMP(6),
+    revoked          BOOLEAN      NOT NULL DEFAULT FALSE
+);
+
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_family ON refresh_tokens (family_id);
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_user ON refresh_tokens (user_id);
+CREATE INDEX IF NOT EXISTS idx_refresh_tokens_expires ON refresh_tokens (expires_at);
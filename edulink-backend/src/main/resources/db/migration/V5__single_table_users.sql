@@ -0,0 +1,41 @@
+-- Move the user hierarchy from JOINED (users + students/teachers/admin) to SINGLE_TABLE.
+-- The existing role column becomes the discriminator; the only subclass column,
+-- students.reputation_points, moves onto users. Loading a user no longer outer-joins
+-- three tables, and a role change is a single UPDATE of users.
+--
+-- Expand step only: the per-role tables stay, so instances still running the JOINED
+-- mapping keep working during a rolling deploy. V12 and V13 check the column and drop
+-- the tables once none are left.
+
+-- Nullable column, so adding it does not rewrite or lock the table for long
+ALTER TABLE users ADD COLUMN reputation_points FLOAT(53);
+
+-- Copy existing students' reputation
+UPDATE users
+SET reputation_points = (SELECT s.reputation_points FROM students s WHERE s.user_id = users.user_id)
+WHERE user_id IN (SELECT user_id FROM students);
+
+-- Students that never got a students row start from zero
+UPDATE users
+SET reputation_points = 0
+WHERE role = 'STUDENT' AND reputation_points IS NULL;
+
+-- Other roles carry no reputation (e.g. a leftover students row after a role change)
+UPDATE users
+SET reputation_points = NULL
+WHERE role <> 'STUDENT';
+
+-- The new mapping deletes users without touching the per-role tables, so they must no
+-- longer reference users. Constraint names depend on how the schema was created
+DO $$
+DECLARE
+    fk record;
+BEGIN
+    FOR fk IN SELECT conrelid::regclass AS table_name, conname
+              FROM pg_constraint
+              WHERE contype = 'f'
+                AND conrelid IN ('students'::regclass, 'teachers'::regclass, 'admin'::regclass)
+    LOOP
+        EXECUTE format('ALTER TABLE %s DROP CONSTRAINT %I', fk.table_name, fk.conname);
+    END LOOP;
+END $$;
@@ -0,0 +1,43 @@
+-- Indexes for the repository queries not yet served by V2-V4: foreign-key lookups,
+-- reply loading and the remaining listings. Every query is checked against this schema
+-- by RepositoryIndexUsageTest. IF NOT EXISTS: databases created by ddl-auto may have some.
+
+-- Documents of an uploader (profile counts, reputation recompute, user delete)
+CREATE INDEX IF NOT EXISTS idx_documents_uploader
+    ON documents (uploader_id);
+
+-- Ratings of a user (user delete)
+CREATE INDEX IF NOT EXISTS idx_document_ratings_user
+    ON document_ratings (user_id);
+
+-- All-courses thread listing, most recently active first
+CREATE INDEX IF NOT EXISTS idx_forum_threads_activity
+    ON forum_threads (last_activity_at DESC, thread_id DESC);
+
+-- Threads of an author (user delete)
+CREATE INDEX IF NOT EXISTS idx_forum_threads_author
+    ON forum_threads (author_id);
+
+-- Replies of a thread, oldest first (thread detail, reply summary maintenance)
+CREATE INDEX IF NOT EXISTS idx_forum_replies_thread_created
+    ON forum_replies (thread_id, created_at, reply_id);
+
+-- Replies of a user (user delete)
+CREATE INDEX IF NOT EXISTS idx_forum_replies_user
+    ON forum_replies (user_id);
+
+-- Activity listing, in date order
+CREATE INDEX IF NOT EXISTS idx_activities_date
+    ON activities (activity_date, activity_id);
+
+-- Activities of an organizer (user delete)
+CREATE INDEX IF NOT EXISTS idx_activities_organizer
+    ON activities (organizer_id);
+
+-- User counts per role (admin statistics)
+CREATE INDEX IF NOT EXISTS idx_users_role
+    ON users (role);
+
+-- Courses of a teacher
+CREATE INDEX IF NOT EXISTS idx_courses_teacher_name
+    ON courses (teacher_name);
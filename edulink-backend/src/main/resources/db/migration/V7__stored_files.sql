@@ -0,0 +1,10 @@
+-- Content-addressed upload store: each distinct file is stored once, under
+-- <sha-256 hex><.extension>, and counts the documents that reference it.
+-- Files uploaded before this keep their random names and have no row here.
+
+CREATE TABLE IF NOT EXISTS stored_files (
+    content_key VARCHAR(80)  PRIMARY KEY,
+    size_bytes  BIGINT       NOT NULL,
+    ref_count   INTEGER      NOT NULL,
+    created_at  TIMESTAMP(6) NOT NULL
+);
@@ -0,0 +1,27 @@
+-- Resumable uploads: a session describes the document being uploaded, its bytes are
+-- written chunk by chunk into a part file, and upload_session_chunks records the
+-- chunks that are on disk. Completing the session turns it into a document.
+
+CREATE TABLE IF NOT EXISTS upload_sessions (
+    session_id        VARCHAR(36)  PRIMARY KEY,
+    uploader_id       BIGINT       NOT NULL REFERENCES users (user_id) ON DELETE CASCADE,
+    course_id         BIGINT       NOT NULL REFERENCES courses (course_id) ON DELETE CASCADE,
+    doc_title         VARCHAR(255) NOT NULL,
+    doc_description   TEXT,
+    document_type     VARCHAR(255),
+    original_filename VARCHAR(255) NOT NULL,
+    total_size        BIGINT       NOT NULL,
+    chunk_size        INTEGER      NOT NULL,
+    created_at        TIMESTAMP(6) NOT NULL,
+    expires_at        TIMESTAMP(6) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS upload_session_chunks (
+    session_id  VARCHAR(36) NOT NULL REFERENCES upload_sessions (session_id) ON DELETE CASCADE,
+    chunk_index INTEGER     NOT NULL,
+    PRIMARY KEY (session_id, chunk_index)
+);
+
+CREATE INDEX IF NOT EXISTS idx_upload_sessions_expires ON upload_sessions (expires_at);
+CREATE INDEX IF NOT EXISTS idx_upload_sessions_uploader ON upload_sessions (uploader_id);
+CREATE INDEX IF NOT EXISTS idx_upload_sessions_course ON upload_sessions (course_id);
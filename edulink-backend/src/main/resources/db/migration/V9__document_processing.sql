@@ -0,0 +1,13 @@
+-- Background processing of uploaded documents (DocumentProcessingPipeline): one
+-- status per stage plus the overall status. Existing documents start as PENDING
+-- and are processed gradually by the pipeline's sweep.
+
+ALTER TABLE documents ADD COLUMN IF NOT EXISTS processing_status   VARCHAR(20) NOT NULL DEFAULT 'PENDING';
+ALTER TABLE documents ADD COLUMN IF NOT EXISTS content_type_status VARCHAR(20) NOT NULL DEFAULT 'PENDING';
+ALTER TABLE documents ADD COLUMN IF NOT EXISTS checksum_status     VARCHAR(20) NOT NULL DEFAULT 'PENDING';
+ALTER TABLE documents ADD COLUMN IF NOT EXISTS content_type        VARCHAR(255);
+ALTER TABLE documents ADD COLUMN IF NOT EXISTS processing_error    VARCHAR(500);
+ALTER TABLE documents ADD COLUMN IF NOT EXISTS processed_at        TIMESTAMP(6);
+
+-- The sweep looks for PENDING documents, a small fraction of the table
+CREATE INDEX IF NOT EXISTS idx_documents_processing_status ON documents (processing_status, document_id);
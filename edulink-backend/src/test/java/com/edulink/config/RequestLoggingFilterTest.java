@@ -0,0 +1,119 @@
+package com.edulink.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import jakarta.servlet.ServletException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit test for the sampled request log, no application context needed
+ */
+public class RequestLoggingFilterTest {
+
+    private Logger requestLogger;
+    private ListAppender<ILoggingEvent> appender;
+    private RequestLoggingProperties properties;
+    private RequestLoggingFilter filter;
+
+    @BeforeEach
+    public void setUp() {
+        requestLogger = (Logger) LoggerFactory.getLogger("edulink.requests");
+        requestLogger.setLevel(Level.INFO);
+        appender = new ListAppender<>();
+        appender.start();
+        requestLogger.addAppender(appender);
+
+        properties = new RequestLoggingProperties();
+        filter = new RequestLoggingFilter(properties);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        requestLogger.detachAppender(appender);
+    }
+
+    @Test
+    public void testRequestIsLoggedWithUserAndRequestId() throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/documents/5");
+        request.addHeader(RequestLoggingFilter.REQUEST_ID_HEADER, "abc-123");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, (req, res) -> {
+            assertEquals("abc-123", MDC.get(RequestLoggingFilter.REQUEST_ID_MDC_KEY));
+            req.setAttribute(RequestLoggingFilter.USER_ATTRIBUTE, "alice");
+        });
+
+        assertEquals(1, appender.list.size());
+        String line = appender.list.get(0).getFormattedMessage();
+        assertTrue(line.contains("method=GET path=/api/documents/5 status=200"));
+        assertTrue(line.contains("user=alice"));
+        assertEquals("abc-123", response.getHeader(RequestLoggingFilter.REQUEST_ID_HEADER));
+        assertNull(MDC.get(RequestLoggingFilter.REQUEST_ID_MDC_KEY));
+    }
+
+    @Test
+    public void testUnsafeRequestIdIsReplaced() throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/forum/threads");
+        request.addHeader(RequestLoggingFilter.REQUEST_ID_HEADER, "bad id\nlevel=ERROR");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, new MockFilterChain());
+
+        String requestId = response.getHeader(RequestLoggingFilter.REQUEST_ID_HEADER);
+        assertNotNull(requestId);
+        assertTrue(requestId.matches("[0-9a-f]+"));
+    }
+
+    @Test
+    public void testCategorySampledAtZeroIsNotLogged() throws ServletException, IOException {
+        properties.getSampleRates().put("actuator", 0.0);
+
+        for (int i = 0; i < 100; i++) {
+            filter.doFilter(new MockHttpServletRequest("GET", "/actuator/health"),
+                    new MockHttpServletResponse(), new MockFilterChain());
+        }
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/auth/login"),
+                new MockHttpServletResponse(), new MockFilterChain());
+
+        assertEquals(1, appender.list.size());
+    }
+
+    @Test
+    public void testServerErrorsBypassSampling() throws ServletException, IOException {
+        properties.setDefaultSampleRate(0.0);
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/documents/upload"), response,
+                (req, res) -> ((MockHttpServletResponse) res).setStatus(503));
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/documents"),
+                new MockHttpServletResponse(), new MockFilterChain());
+
+        assertEquals(1, appender.list.size());
+        assertEquals(Level.WARN, appender.list.get(0).getLevel());
+        assertTrue(appender.list.get(0).getFormattedMessage().contains("status=503"));
+    }
+
+    @Test
+    public void testCategoryOf() {
+        assertEquals("documents", RequestLoggingFilter.categoryOf("/api/documents/5/download"));
+        assertEquals("forum", RequestLoggingFilter.categoryOf("/api/forum"));
+        assertEquals("actuator", RequestLoggingFilter.categoryOf("/actuator/health"));
+        assertEquals("", RequestLoggingFilter.categoryOf("/"));
+    }
+}
@@ -0,0 +1,110 @@
+package com.edulink.controller;
+
+import com.edulink.dto.document.DocumentFileDTO;
+import com.edulink.service.DocumentRatingService;
+import com.edulink.service.DocumentService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.hamcrest.Matchers.endsWith;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.head;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * File responses on a connector that supports sendfile: Tomcat streams the file
+ * whenever the sendfile attributes are set, so they must only be set when the
+ * response carries the file. No database needed
+ */
+public class DocumentControllerTest {
+
+    private static final String PREVIEW = "/api/documents/1/preview";
+    private static final String ETAG = "\"v1\"";
+
+    private Path file;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        file = Files.createTempFile("preview", ".pdf");
+        Files.writeString(file, "0123456789", StandardCharsets.UTF_8);
+
+        DocumentService documentService = mock(DocumentService.class);
+        when(documentService.previewDocument(1L)).thenReturn(DocumentFileDTO.builder()
+                .resource(new FileSystemResource(file))
+                .path(file)
+                .fileName("notes.pdf")
+                .contentType("application/pdf")
+                .fileSize(10)
+                .lastModified(Files.getLastModifiedTime(file).toMillis())
+                .entityTag(ETAG)
+                .build());
+
+        mockMvc = MockMvcBuilders
+                .standaloneSetup(new DocumentController(documentService, mock(DocumentRatingService.class)))
+                .build();
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    public void testGetHandsTheFileToSendfile() throws Exception {
+        mockMvc.perform(withSendfile(get(PREVIEW)))
+                .andExpect(status().isOk())
+                .andExpect(request().attribute("org.apache.tomcat.sendfile.filename", endsWith(file.getFileName().toString())))
+                .andExpect(request().attribute("org.apache.tomcat.sendfile.end", 10L));
+    }
+
+    @Test
+    public void testNotModifiedIsNotSentWithSendfile() throws Exception {
+        mockMvc.perform(withSendfile(get(PREVIEW)).header(HttpHeaders.IF_NONE_MATCH, ETAG))
+                .andExpect(status().isNotModified())
+                .andExpect(content().bytes(new byte[0]))
+                .andExpect(request().attribute("org.apache.tomcat.sendfile.filename", nullValue()));
+    }
+
+    @Test
+    public void testNotModifiedRangeIsNotSentWithSendfile() throws Exception {
+        mockMvc.perform(withSendfile(get(PREVIEW))
+                        .header(HttpHeaders.RANGE, "bytes=2-5")
+                        .header(HttpHeaders.IF_NONE_MATCH, ETAG))
+                .andExpect(status().isNotModified())
+                .andExpect(request().attribute("org.apache.tomcat.sendfile.filename", nullValue()));
+    }
+
+    @Test
+    public void testHeadIsNotSentWithSendfile() throws Exception {
+        mockMvc.perform(withSendfile(head(PREVIEW)))
+                .andExpect(status().isOk())
+                .andExpect(header().longValue(HttpHeaders.CONTENT_LENGTH, 10))
+                .andExpect(request().attribute("org.apache.tomcat.sendfile.filename", nullValue()));
+
+        mockMvc.perform(withSendfile(head(PREVIEW)).header(HttpHeaders.RANGE, "bytes=2-5"))
+                .andExpect(request().attribute("org.apache.tomcat.sendfile.filename", nullValue()));
+    }
+
+    // Helper methods
+
+    private static MockHttpServletRequestBuilder withSendfile(MockHttpServletRequestBuilder request) {
+        return request.requestAttr("org.apache.tomcat.sendfile.support", Boolean.TRUE);
+    }
+}
@@ -0,0 +1,294 @@
+package com.edulink.repository;
+
+import com.edulink.model.Activity;
+import com.edulink.model.Course;
+import com.edulink.model.Document;
+import com.edulink.model.DocumentRating;
+import com.edulink.model.ForumReply;
+import com.edulink.model.ForumThread;
+import com.edulink.model.RefreshToken;
+import com.edulink.model.Student;
+import com.edulink.model.Teacher;
+import com.edulink.model.User;
+import com.edulink.model.enums.ActivityType;
+import com.edulink.model.enums.UserRole;
+import com.edulink.support.TestData;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Runs every repository query against the Flyway-migrated schema, over seeded data,
+ * with sequential scans disabled for the planner. A query that still scans a table
+ * sequentially has no index to use, and the test fails naming the query and table.
+ * Sequential scans are read from pg_stat_xact_user_tables, so this needs PostgreSQL.
+ *
+ * Not checked, full reads by design: the course list, user search (substring match),
+ * the rating drift check and the reputation recompute. ActivityRepository.findByActivityType
+ * is unused.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+public class RepositoryIndexUsageTest {
+
+    private static final int SEEDED_DOCUMENTS = 40;
+    private static final int SEEDED_THREADS = 20;
+    private static final int SEEDED_ACTIVITIES = 20;
+
+    @Autowired
+    private DocumentRepository documentRepository;
+
+    @Autowired
+    private DocumentRatingRepository ratingRepository;
+
+    @Autowired
+    private ForumThreadRepository threadRepository;
+
+    @Autowired
+    private ForumReplyRepository replyRepository;
+
+    @Autowired
+    private ActivityRepository activityRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TestData testData;
+
+    private Student student;
+    private Teacher teacher;
+    private Course course;
+    private Document document;
+    private ForumThread thread;
+    private Activity activity;
+    private RefreshToken refreshToken;
+
+    @BeforeEach
+    public void setUp() {
+        seed();
+        entityManager.flush();
+        entityManager.clear();
+
+        // Only for this transaction: any query that can use an index now will. Cached plans
+        // (server-side prepared statements, foreign key checks) are dropped so they are re-planned
+        entityManager.createNativeQuery("SELECT set_config('enable_seqscan', 'off', true)").getSingleResult();
+        entityManager.createNativeQuery("DISCARD PLANS").executeUpdate();
+    }
+
+    @Test
+    public void testDocumentQueriesUseIndexes() {
+        Long courseId = course.getCourseId();
+        Long documentId = document.getDocumentId();
+        Long uploaderId = student.getUserId();
+        LocalDateTime now = LocalDateTime.now();
+
+        assertNoSequentialScan("documents by course", () -> documentRepository.findByCourse_CourseId(courseId));
+        assertNoSequentialScan("documents by approval", () -> documentRepository.findByIsApproved(false));
+        assertNoSequentialScan("count by uploader", () -> documentRepository.countByUploaderUserId(uploaderId));
+        assertNoSequentialScan("count by approval", () -> documentRepository.countByIsApproved(true));
+        assertNoSequentialScan("documents by uploader", () -> documentRepository.findByUploaderUserIdAndIsApproved(uploaderId, true));
+        assertNoSequentialScan("approved check", () -> documentRepository.existsByIdAndApproved(documentId));
+        assertNoSequentialScan("document detail", () -> documentRepository.findWithUploaderAndCourseByDocumentId(documentId));
+        assertNoSequentialScan("listing", () -> documentRepository.findApprovedDocumentSummaries(Limit.of(20)));
+        assertNoSequentialScan("listing next page", () -> documentRepository.findApprovedDocumentSummariesBefore(now, documentId, Limit.of(20)));
+        assertNoSequentialScan("course listing", () -> documentRepository.findApprovedDocumentSummariesByCourse(courseId, Limit.of(20)));
+        assertNoSequentialScan("course listing next page", () ->
+                documentRepository.findApprovedDocumentSummariesByCourseBefore(courseId, now, documentId, Limit.of(20)));
+        assertNoSequentialScan("uploader listing", () -> documentRepository.findApprovedDocumentSummariesByUploader(uploaderId, Limit.of(20)));
+        assertNoSequentialScan("uploader listing next page", () ->
+                documentRepository.findApprovedDocumentSummariesByUploaderBefore(uploaderId, now, documentId, Limit.of(20)));
+        assertNoSequentialScan("validation listing", () -> documentRepository.findDocumentSummariesForValidation());
+        assertNoSequentialScan("document lock", () -> documentRepository.findByIdForUpdate(documentId));
+    }
+
+    @Test
+    public void testRatingQueriesUseIndexes() {
+        Long documentId = document.getDocumentId();
+        Long userId = teacher.getUserId();
+
+        assertNoSequentialScan("rating of user", () -> ratingRepository.findByDocumentDocumentIdAndUserUserId(documentId, userId));
+        assertNoSequentialScan("ratings of document", () -> ratingRepository.findByDocumentDocumentId(documentId));
+        assertNoSequentialScan("rating histogram", () -> ratingRepository.countRatingsByStars(documentId));
+    }
+
+    @Test
+    public void testForumQueriesUseIndexes() {
+        Long courseId = course.getCourseId();
+        Long threadId = thread.getThreadId();
+
+        assertNoSequentialScan("threads by course", () -> threadRepository.findByCourse_CourseId(courseId));
+        assertNoSequentialScan("unanswered count", () -> threadRepository.countByCourseAndUnanswered(courseId));
+        assertNoSequentialScan("thread detail", () -> threadRepository.findWithAuthorAndCourseByThreadId(threadId));
+        assertNoSequentialScan("thread listing", () -> threadRepository.findThreadSummaries());
+        assertNoSequentialScan("course thread listing", () -> threadRepository.findThreadSummariesByCourse(courseId));
+        assertNoSequentialScan("replies by thread", () -> replyRepository.findByThreadThreadId(threadId));
+        assertNoSequentialScan("replies with users", () -> replyRepository.findByThreadIdWithUser(threadId));
+        assertNoSequentialScan("reply added", () -> threadRepository.recordReplyAdded(threadId, LocalDateTime.now(), false));
+        assertNoSequentialScan("reply removed", () -> threadRepository.recordReplyRemoved(threadId));
+    }
+
+    @Test
+    public void testActivityAndCourseQueriesUseIndexes() {
+        Long activityId = activity.getActivityId();
+
+        assertNoSequentialScan("activity listing", () -> activityRepository.findActivitySummaries());
+        assertNoSequentialScan("activity detail", () -> activityRepository.findWithOrganizerByActivityId(activityId));
+        assertNoSequentialScan("course by code", () -> courseRepository.findByCode(course.getCode()));
+        assertNoSequentialScan("courses of teacher", () -> courseRepository.findByTeacherName(teacher.getUsername()));
+    }
+
+    @Test
+    public void testUserQueriesUseIndexes() {
+        Long studentId = student.getUserId();
+
+        assertNoSequentialScan("user by username", () -> userRepository.findByUsername(student.getUsername()));
+        assertNoSequentialScan("user by email", () -> userRepository.findByEmail(student.getEmail()));
+        assertNoSequentialScan("username taken", () -> userRepository.existsByUsername(student.getUsername()));
+        assertNoSequentialScan("email taken", () -> userRepository.existsByEmail(student.getEmail()));
+        assertNoSequentialScan("count by role", () -> userRepository.countByRole(UserRole.ADMIN));
+        assertNoSequentialScan("reputation change", () -> studentRepository.addReputationPoints(studentId, 5.0));
+        assertNoSequentialScan("role change", () -> userRepository.changeRole(teacher.getUserId(), UserRole.TEACHER.name()));
+    }
+
+    @Test
+    public void testUserDeleteForeignKeyChecksUseIndexes() {
+        // Deleting a user checks every table that references users
+        User unused = testData.student("index-usage");
+        entityManager.flush();
+        Long userId = unused.getUserId();
+
+        assertNoSequentialScan("user delete", () -> {
+            entityManager.remove(entityManager.find(User.class, userId));
+            entityManager.flush();
+        });
+    }
+
+    @Test
+    public void testRefreshTokenQueriesUseIndexes() {
+        String tokenHash = refreshToken.getTokenHash();
+        Long tokenId = refreshToken.getRefreshTokenId();
+
+        assertNoSequentialScan("token with user", () -> refreshTokenRepository.findByTokenHashWithUser(tokenHash));
+        assertNoSequentialScan("token", () -> refreshTokenRepository.findByTokenHash(tokenHash));
+        assertNoSequentialScan("token rotation", () -> refreshTokenRepository.markUsed(tokenId, LocalDateTime.now()));
+        assertNoSequentialScan("family revocation", () -> refreshTokenRepository.revokeFamily(refreshToken.getFamilyId()));
+        assertNoSequentialScan("tokens of user", () -> refreshTokenRepository.deleteByUserId(student.getUserId()));
+        assertNoSequentialScan("expired tokens", () -> refreshTokenRepository.deleteExpired(LocalDateTime.now()));
+    }
+
+    // Helper methods
+
+    private void assertNoSequentialScan(String query, Runnable call) {
+        Map<String, Long> before = sequentialScans();
+        call.run();
+        Map<String, Long> after = sequentialScans();
+
+        List<String> scanned = new ArrayList<>();
+        after.forEach((table, scans) -> {
+            if (scans > before.getOrDefault(table, 0L)) {
+                scanned.add(table);
+            }
+        });
+        assertTrue(scanned.isEmpty(), "Query '" + query + "' scanned sequentially: " + scanned);
+    }
+
+    /**
+     * Sequential scans per table done by this transaction so far
+     */
+    private Map<String, Long> sequentialScans() {
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = entityManager
+                .createNativeQuery("SELECT relname, seq_scan FROM pg_stat_xact_user_tables")
+                .getResultList();
+
+        Map<String, Long> scans = new HashMap<>();
+        for (Object[] row : rows) {
+            scans.put((String) row[0], ((Number) row[1]).longValue());
+        }
+        return scans;
+    }
+
+    private void seed() {
+        student = testData.student("index-usage");
+        teacher = testData.teacher("index-usage");
+        course = testData.course("index-usage");
+        course.setTeacherName(teacher.getUsername());
+
+        for (int i = 0; i < SEEDED_DOCUMENTS; i++) {
+            Document seeded = testData.document(i % 2 == 0 ? student : teacher, course, "uploads/index-usage-" + i + ".pdf");
+            seeded.setIsApproved(i % 4 != 0);
+            seeded.applyRating(null, 4);
+
+            DocumentRating rating = new DocumentRating();
+            rating.setDocument(seeded);
+            rating.setUser(teacher);
+            rating.setRating(4);
+            entityManager.persist(rating);
+
+            document = seeded;
+        }
+
+        for (int i = 0; i < SEEDED_THREADS; i++) {
+            ForumThread seeded = testData.thread(student, course);
+
+            for (int j = 0; j < 3; j++) {
+                ForumReply reply = new ForumReply();
+                reply.setContent("Reply " + j);
+                reply.setThread(seeded);
+                reply.setUser(j % 2 == 0 ? teacher : student);
+                reply.setIsTeacherResponse(j % 2 == 0);
+                entityManager.persist(reply);
+            }
+
+            thread = seeded;
+        }
+
+        for (int i = 0; i < SEEDED_ACTIVITIES; i++) {
+            Activity seeded = new Activity();
+            seeded.setTitle("Index usage activity " + i);
+            seeded.setActivityType(ActivityType.EVENT);
+            seeded.setActivityDate(LocalDateTime.now().plusDays(i));
+            seeded.setOrganizer(student);
+            seeded.setAttendance(0);
+            entityManager.persist(seeded);
+
+            activity = seeded;
+        }
+
+        refreshToken = new RefreshToken();
+        refreshToken.setUser(student);
+        refreshToken.setTokenHash(UUID.randomUUID().toString().replace("-", "") + UUID.randomUUID().toString().replace("-", ""));
+        refreshToken.setFamilyId(UUID.randomUUID().toString());
+        refreshToken.setCreatedAt(LocalDateTime.now());
+        refreshToken.setExpiresAt(LocalDateTime.now().plusDays(1));
+        entityManager.persist(refreshToken);
+    }
+}
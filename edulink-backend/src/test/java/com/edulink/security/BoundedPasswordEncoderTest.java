@@ -0,0 +1,112 @@
+package com.edulink.security;
+
+import com.edulink.config.PasswordHashingProperties;
+import com.edulink.exception.BusinessException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit test for the bounded password hashing executor, with a fake encoder that
+ * blocks until released
+ */
+public class BoundedPasswordEncoderTest {
+
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final CountDownLatch started = new CountDownLatch(1);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private BoundedPasswordEncoder encoder;
+
+    @AfterEach
+    public void tearDown() {
+        release.countDown();
+        encoder.close();
+    }
+
+    @Test
+    public void testHashingRunsOnThePool() {
+        encoder = newEncoder(1, 1, 2_000);
+        release.countDown();
+
+        assertEquals("hash:secret", encoder.encode("secret"));
+        assertTrue(encoder.matches("secret", "hash:secret"));
+        assertFalse(encoder.matches("other", "hash:secret"));
+        assertEquals(2, meterRegistry.get("auth.password.hashing").tag("operation", "matches").timer().count());
+    }
+
+    @Test
+    public void testFullQueueIsRejectedWithRetryAfter() throws Exception {
+        encoder = newEncoder(1, 1, 5_000);
+
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("first"));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("second"));
+        waitForQueuedTasks(1);
+
+        BusinessException rejected = assertThrows(BusinessException.class, () -> encoder.encode("third"));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, rejected.getHttpStatus());
+        assertEquals(3, rejected.getRetryAfterSeconds());
+        assertEquals(1.0, meterRegistry.get("auth.password.hashing.rejected").counter().count());
+
+        release.countDown();
+        assertEquals("hash:first", running.get(5, TimeUnit.SECONDS));
+        assertEquals("hash:second", queued.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testSlowHashGivesUpAfterMaxWait() {
+        encoder = newEncoder(1, 1, 100);
+
+        BusinessException timedOut = assertThrows(BusinessException.class, () -> encoder.encode("slow"));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, timedOut.getHttpStatus());
+    }
+
+    // Helper methods
+
+    private BoundedPasswordEncoder newEncoder(int threads, int queueCapacity, long maxWait) {
+        PasswordHashingProperties properties = new PasswordHashingProperties();
+        properties.setThreads(threads);
+        properties.setQueueCapacity(queueCapacity);
+        properties.setMaxWait(maxWait);
+        properties.setRetryAfter(3);
+        return new BoundedPasswordEncoder(new BlockingEncoder(), properties, meterRegistry);
+    }
+
+    private void waitForQueuedTasks(int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (meterRegistry.get("executor.queued").gauge().value() < expected) {
+            assertTrue(System.currentTimeMillis() < deadline, "Task was never queued");
+            Thread.sleep(10);
+        }
+    }
+
+    private class BlockingEncoder implements PasswordEncoder {
+
+        @Override
+        public String encode(CharSequence rawPassword) {
+            started.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return "hash:" + rawPassword;
+        }
+
+        @Override
+        public boolean matches(CharSequence rawPassword, String encodedPassword) {
+            return encode(rawPassword).equals(encodedPassword);
+        }
+    }
+}
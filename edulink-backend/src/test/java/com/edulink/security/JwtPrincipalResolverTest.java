@@ -0,0 +1,143 @@
+package com.edulink.security;
+
+import com.edulink.model.Student;
+import com.edulink.model.enums.UserRole;
+import com.edulink.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit test for building principals from JWT claims, no database needed
+ */
+public class JwtPrincipalResolverTest {
+
+    private final CustomUserDetailsService userDetailsService = mock(CustomUserDetailsService.class);
+    private final UserRepository userRepository = mock(UserRepository.class);
+    private final JwtPrincipalResolver resolver = new JwtPrincipalResolver(userDetailsService, userRepository, 100, 60_000);
+
+    @Test
+    public void testPrincipalIsBuiltFromClaimsWithoutDatabase() {
+        storedUser(null);
+
+        UserDetails first = resolver.resolve(token("STUDENT", new Date()));
+        UserDetails second = resolver.resolve(token("STUDENT", new Date()));
+
+        assertEquals("alice", second.getUsername());
+        assertEquals(7L, ((AuthenticatedUser) second).getUserId());
+        assertEquals(List.of(new SimpleGrantedAuthority("STUDENT")), List.copyOf(first.getAuthorities()));
+        // Token validity is read once, then cached
+        verify(userRepository, times(1)).findById(7L);
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    public void testTokensWithoutUserIdAreResolvedFromDatabase() {
+        Date now = new Date();
+        when(userDetailsService.loadUserByUsername("alice"))
+                .thenReturn(new AuthenticatedUser(7L, "alice", "hash", UserRole.STUDENT));
+
+        UserDetails principal = resolver.resolve(
+                new VerifiedJwt("token-1", null, "alice", "STUDENT", now, new Date(now.getTime() + 3_600_000)));
+
+        assertEquals(7L, ((AuthenticatedUser) principal).getUserId());
+        verify(userDetailsService, times(1)).loadUserByUsername("alice");
+    }
+
+    @Test
+    public void testTokensIssuedBeforeInvalidationAreResolvedFromDatabase() {
+        Date issuedBefore = new Date(System.currentTimeMillis() - 5_000);
+        when(userDetailsService.loadUserById(7L))
+                .thenReturn(new User("alice", "hash", List.of(new SimpleGrantedAuthority("TEACHER"))));
+
+        storedUser(LocalDateTime.now());
+        resolver.invalidate(7L, "alice");
+        UserDetails first = resolver.resolve(token("STUDENT", issuedBefore));
+        UserDetails second = resolver.resolve(token("STUDENT", issuedBefore));
+
+        assertEquals(List.of(new SimpleGrantedAuthority("TEACHER")), List.copyOf(first.getAuthorities()));
+        assertEquals(first, second);
+        verify(userDetailsService, times(1)).loadUserById(7L);
+    }
+
+    @Test
+    public void testInvalidationIsReadFromDatabaseByFreshResolver() {
+        // As after a restart, or on another node: nothing in memory, only the stored column
+        Date issuedBefore = new Date(System.currentTimeMillis() - 5_000);
+        storedUser(LocalDateTime.now());
+        when(userDetailsService.loadUserById(7L))
+                .thenReturn(new AuthenticatedUser(7L, "alice", "hash", UserRole.TEACHER));
+
+        UserDetails principal = resolver.resolve(token("STUDENT", issuedBefore));
+
+        assertEquals(List.of(new SimpleGrantedAuthority("TEACHER")), List.copyOf(principal.getAuthorities()));
+    }
+
+    @Test
+    public void testStaleTokenDoesNotResolveToNewOwnerOfItsUsername() {
+        // alice (7) is renamed to alice2, and a new account registers as alice (8)
+        Date issuedBefore = new Date(System.currentTimeMillis() - 5_000);
+        storedUser(LocalDateTime.now());
+        when(userDetailsService.loadUserById(7L))
+                .thenReturn(new AuthenticatedUser(7L, "alice2", "hash", UserRole.STUDENT));
+        when(userDetailsService.loadUserByUsername("alice"))
+                .thenReturn(new AuthenticatedUser(8L, "alice", "hash", UserRole.ADMIN));
+
+        UserDetails principal = resolver.resolve(token("STUDENT", issuedBefore));
+
+        assertEquals(7L, ((AuthenticatedUser) principal).getUserId());
+        assertEquals("alice2", principal.getUsername());
+        verify(userDetailsService, never()).loadUserByUsername("alice");
+    }
+
+    @Test
+    public void testTokensOfDeletedUsersAreRejected() {
+        when(userRepository.findById(7L)).thenReturn(Optional.empty());
+
+        assertThrows(UsernameNotFoundException.class, () -> resolver.resolve(token("STUDENT", new Date())));
+        verifyNoInteractions(userDetailsService);
+    }
+
+    @Test
+    public void testTokensIssuedAfterInvalidationUseClaimsAgain() {
+        storedUser(LocalDateTime.now());
+        resolver.invalidate(7L, "alice");
+        // iat has second precision: a new login lands in a later second
+        Date issuedAfter = new Date(System.currentTimeMillis() + 1_000);
+
+        UserDetails principal = resolver.resolve(token("TEACHER", issuedAfter));
+
+        assertEquals(List.of(new SimpleGrantedAuthority("TEACHER")), List.copyOf(principal.getAuthorities()));
+        verifyNoInteractions(userDetailsService);
+    }
+
+    // Helper methods
+
+    private void storedUser(LocalDateTime tokensValidAfter) {
+        Student user = new Student();
+        user.setUserId(7L);
+        user.setUsername("alice");
+        user.setTokensValidAfter(tokensValidAfter);
+        when(userRepository.findById(7L)).thenReturn(Optional.of(user));
+    }
+
+    private VerifiedJwt token(String role, Date issuedAt) {
+        return new VerifiedJwt("token-1", 7L, "alice", role, issuedAt, new Date(issuedAt.getTime() + 3_600_000));
+    }
+}
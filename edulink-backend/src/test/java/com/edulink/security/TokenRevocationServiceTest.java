@@ -0,0 +1,59 @@
+package com.edulink.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Unit test for the revoked token denylist, no database needed
+ */
+public class TokenRevocationServiceTest {
+
+    private final TokenRevocationService revocations = new TokenRevocationService(1_000);
+
+    @Test
+    public void testRevokedTokenIsRejectedAndOthersAreNot() {
+        VerifiedJwt revoked = token("jti-1", 60_000);
+        VerifiedJwt other = token("jti-2", 60_000);
+
+        revocations.revoke(revoked);
+
+        assertTrue(revocations.isRevoked(revoked));
+        assertFalse(revocations.isRevoked(other));
+    }
+
+    @Test
+    public void testTokenWithoutIdIsNeverRevoked() {
+        VerifiedJwt legacy = token(null, 60_000);
+
+        revocations.revoke(legacy);
+
+        assertFalse(revocations.isRevoked(legacy));
+        assertEquals(0, revocations.size());
+    }
+
+    @Test
+    public void testSweepDropsExpiredEntriesAndKeepsLiveOnes() {
+        VerifiedJwt expired = token("jti-expired", -1_000);
+        VerifiedJwt live = token("jti-live", 60_000);
+        revocations.revoke(expired);
+        revocations.revoke(live);
+
+        revocations.sweep();
+
+        assertEquals(1, revocations.size());
+        assertTrue(revocations.isRevoked(live));
+        assertFalse(revocations.isRevoked(expired));
+    }
+
+    // Helper methods
+
+    private VerifiedJwt token(String tokenId, long expiresIn) {
+        long now = System.currentTimeMillis();
+        return new VerifiedJwt(tokenId, 7L, "alice", "STUDENT", new Date(now), new Date(now + expiresIn));
+    }
+}
@@ -0,0 +1,103 @@
+package com.edulink.service;
+
+import com.edulink.dto.forum.ForumReplyCreateRequest;
+import com.edulink.dto.forum.ForumReplyDTO;
+import com.edulink.model.Admin;
+import com.edulink.model.Course;
+import com.edulink.model.ForumThread;
+import com.edulink.model.Student;
+import com.edulink.model.User;
+import com.edulink.security.AuthenticatedUser;
+import com.edulink.support.TestData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Services take the caller's id and role from the request principal instead of
+ * loading the user row: with a principal, each call issues one statement less.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Transactional
+public class CurrentUserQueryCountTest {
+
+    @Autowired
+    private ForumService forumService;
+
+    @Autowired
+    private DocumentValidationService validationService;
+
+    @Autowired
+    private TestData testData;
+
+    private Student student;
+    private Admin admin;
+    private ForumThread thread;
+
+    @BeforeEach
+    public void setUp() {
+        student = testData.student("principal");
+        admin = testData.admin("principal");
+        Course course = testData.course("principal");
+        thread = testData.thread(student, course);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void testReplyUsesPrincipalInsteadOfUserLookup() {
+        long withLookup = testData.countStatements(() -> reply("without principal"));
+
+        authenticate(student);
+        long withPrincipal = testData.countStatements(() -> reply("with principal"));
+
+        assertEquals(withLookup - 1, withPrincipal);
+    }
+
+    @Test
+    public void testReplyDtoUsesPrincipalFields() {
+        authenticate(student);
+
+        ForumReplyDTO reply = reply("hello");
+
+        assertEquals(student.getUserId(), reply.getUserId());
+        assertEquals(student.getUsername(), reply.getUsername());
+        assertEquals("STUDENT", reply.getUserRole());
+    }
+
+    @Test
+    public void testAdminCheckUsesPrincipalRole() {
+        long withLookup = testData.countStatements(() -> validationService.getValidationStats(admin.getUsername()));
+
+        authenticate(admin);
+        long withPrincipal = testData.countStatements(() -> validationService.getValidationStats(admin.getUsername()));
+
+        assertEquals(withLookup - 1, withPrincipal);
+    }
+
+    // Helper methods
+
+    private ForumReplyDTO reply(String content) {
+        ForumReplyCreateRequest request = new ForumReplyCreateRequest();
+        request.setContent(content);
+        return forumService.createReply(thread.getThreadId(), request, student.getUsername());
+    }
+
+    private void authenticate(User user) {
+        AuthenticatedUser principal = AuthenticatedUser.from(user);
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+}
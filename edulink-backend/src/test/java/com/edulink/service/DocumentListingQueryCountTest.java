@@ -0,0 +1,134 @@
+package com.edulink.service;
+
+import com.edulink.dto.CursorPageDTO;
+import com.edulink.dto.document.DocumentDTO;
+import com.edulink.model.Course;
+import com.edulink.model.Document;
+import com.edulink.model.DocumentRating;
+import com.edulink.model.Student;
+import com.edulink.support.TestData;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Regression test for the document listing N+1: the number of statements
+ * issued by a listing page must not depend on how many rows it returns.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Transactional
+public class DocumentListingQueryCountTest {
+
+    private static final long EXPECTED_STATEMENTS = 1;
+    private static final int PAGE_SIZE = 50;
+
+    @Autowired
+    private DocumentService documentService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TestData testData;
+
+    private Student uploader;
+    private Student rater;
+    private Course course;
+
+    @BeforeEach
+    public void setUp() {
+        uploader = testData.student("query-count");
+        rater = testData.student("query-count");
+        course = testData.course("query-count");
+    }
+
+    @Test
+    public void testAllDocumentsStatementCountIsConstant() {
+        seedRatedDocuments(3);
+        long fewRows = testData.countStatements(() -> documentService.getAllDocuments(null, PAGE_SIZE));
+
+        seedRatedDocuments(30);
+        long manyRows = testData.countStatements(() -> documentService.getAllDocuments(null, PAGE_SIZE));
+
+        assertEquals(EXPECTED_STATEMENTS, fewRows);
+        assertEquals(EXPECTED_STATEMENTS, manyRows);
+    }
+
+    @Test
+    public void testCourseDocumentsStatementCountIsConstant() {
+        seedRatedDocuments(3);
+        long fewRows = testData.countStatements(() -> documentService.getDocumentsByCourse(course.getCourseId(), null, PAGE_SIZE));
+
+        seedRatedDocuments(30);
+        long manyRows = testData.countStatements(() -> documentService.getDocumentsByCourse(course.getCourseId(), null, PAGE_SIZE));
+
+        assertEquals(EXPECTED_STATEMENTS, fewRows);
+        assertEquals(EXPECTED_STATEMENTS, manyRows);
+    }
+
+    @Test
+    public void testCourseDocumentsNextPageStatementCountIsConstant() {
+        seedRatedDocuments(30);
+        entityManager.flush();
+        String cursor = documentService.getDocumentsByCourse(course.getCourseId(), null, 10).getNextCursor();
+
+        long nextPage = testData.countStatements(() -> documentService.getDocumentsByCourse(course.getCourseId(), cursor, 10));
+
+        assertEquals(EXPECTED_STATEMENTS, nextPage);
+    }
+
+    @Test
+    public void testUploaderDocumentsArePagedAndFiltered() {
+        seedRatedDocuments(12);
+        testData.document(rater, course, "uploads/query-count-other.pdf");
+        entityManager.flush();
+
+        CursorPageDTO<DocumentDTO> first = documentService.getDocumentsByUploader(uploader.getUserId(), null, 10);
+        long nextPageStatements = testData.countStatements(() ->
+                documentService.getDocumentsByUploader(uploader.getUserId(), first.getNextCursor(), 10));
+        CursorPageDTO<DocumentDTO> second = documentService.getDocumentsByUploader(uploader.getUserId(), first.getNextCursor(), 10);
+
+        assertEquals(10, first.getItems().size());
+        assertEquals(2, second.getItems().size());
+        assertFalse(second.isHasMore());
+        assertTrue(second.getItems().stream().allMatch(doc -> doc.getUploaderId().equals(uploader.getUserId())));
+        assertEquals(EXPECTED_STATEMENTS, nextPageStatements);
+    }
+
+    @Test
+    public void testCourseDocumentsCarryRatingStats() {
+        seedRatedDocuments(2);
+
+        List<DocumentDTO> documents = documentService.getDocumentsByCourse(course.getCourseId(), null, null).getItems();
+
+        assertEquals(2, documents.size());
+        assertTrue(documents.stream().allMatch(doc -> doc.getTotalRatings() == 1L));
+        assertTrue(documents.stream().allMatch(doc -> doc.getAverageRating() == 4.0));
+    }
+
+    // Helper methods
+
+    private void seedRatedDocuments(int count) {
+        for (int i = 0; i < count; i++) {
+            Document document = testData.document(uploader, course, "uploads/query-count-" + i + ".pdf");
+            document.applyRating(null, 4);
+
+            DocumentRating rating = new DocumentRating();
+            rating.setDocument(document);
+            rating.setUser(rater);
+            rating.setRating(4);
+            entityManager.persist(rating);
+        }
+    }
+}
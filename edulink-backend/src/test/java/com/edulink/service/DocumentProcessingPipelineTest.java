@@ -0,0 +1,159 @@
+package com.edulink.service;
+
+import com.edulink.model.Course;
+import com.edulink.model.Document;
+import com.edulink.model.Student;
+import com.edulink.model.enums.ProcessingStatus;
+import com.edulink.support.TestData;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * The pipeline detects the type of an upload from its bytes and re-checks the hash of
+ * content-addressed files, recording the outcome of each stage on the document.
+ */
+@SpringBootTest(properties = "file.upload-dir=target/test-uploads")
+@ActiveProfiles("test")
+@Transactional
+public class DocumentProcessingPipelineTest {
+
+    @Autowired
+    private DocumentProcessingPipeline pipeline;
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TestData testData;
+
+    private Student uploader;
+    private Course course;
+    private final List<String> filenames = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() {
+        uploader = testData.student("pipeline");
+        course = testData.course("pipeline");
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        for (String filename : filenames) {
+            fileStorageService.deleteFile(filename);
+        }
+    }
+
+    @Test
+    public void testPdfIsDetectedAndVerified() throws Exception {
+        Document document = persistDocument(store("notes.txt", "%PDF-1.7 lecture " + UUID.randomUUID()));
+
+        pipeline.process(document.getDocumentId());
+
+        Document processed = reload(document);
+        assertEquals(ProcessingStatus.DONE, processed.getProcessingStatus());
+        assertEquals(ProcessingStatus.DONE, processed.getContentTypeStatus());
+        assertEquals(ProcessingStatus.DONE, processed.getChecksumStatus());
+        assertEquals("application/pdf", processed.getContentType());
+        assertNull(processed.getProcessingError());
+        assertNotNull(processed.getProcessedAt());
+    }
+
+    @Test
+    public void testCorruptedFileFailsTheChecksum() throws Exception {
+        String storedPath = store("notes.pdf", "%PDF-1.7 original " + UUID.randomUUID());
+        Files.writeString(fileStorageService.loadFile(Path.of(storedPath).getFileName().toString()), "%PDF-1.7 flipped");
+        Document document = persistDocument(storedPath);
+
+        pipeline.process(document.getDocumentId());
+
+        Document processed = reload(document);
+        assertEquals(ProcessingStatus.FAILED, processed.getProcessingStatus());
+        assertEquals(ProcessingStatus.DONE, processed.getContentTypeStatus());
+        assertEquals(ProcessingStatus.FAILED, processed.getChecksumStatus());
+        assertNotNull(processed.getProcessingError());
+    }
+
+    @Test
+    public void testLegacyNameSkipsTheChecksum() throws Exception {
+        String filename = UUID.randomUUID() + ".txt";
+        filenames.add(filename);
+        Path legacy = fileStorageService.loadFile(filename);
+        Files.createDirectories(legacy.getParent());
+        Files.writeString(legacy, "plain notes from before content addressing");
+        Document document = persistDocument(fileStorageService.relativePath(filename));
+
+        pipeline.process(document.getDocumentId());
+
+        Document processed = reload(document);
+        assertEquals(ProcessingStatus.DONE, processed.getProcessingStatus());
+        assertEquals("text/plain", processed.getContentType());
+        assertEquals(ProcessingStatus.SKIPPED, processed.getChecksumStatus());
+    }
+
+    @Test
+    public void testMissingFileFailsEveryStage() {
+        Document document = persistDocument(UUID.randomUUID() + ".pdf");
+
+        pipeline.process(document.getDocumentId());
+
+        Document processed = reload(document);
+        assertEquals(ProcessingStatus.FAILED, processed.getProcessingStatus());
+        assertEquals(ProcessingStatus.SKIPPED, processed.getContentTypeStatus());
+        assertEquals(ProcessingStatus.SKIPPED, processed.getChecksumStatus());
+        assertNull(processed.getContentType());
+    }
+
+    @Test
+    public void testProcessedDocumentIsNotProcessedAgain() throws Exception {
+        Document document = persistDocument(store("notes.pdf", "%PDF-1.7 once " + UUID.randomUUID()));
+        pipeline.process(document.getDocumentId());
+        LocalDateTime processedAt = reload(document).getProcessedAt();
+
+        pipeline.process(document.getDocumentId());
+
+        assertEquals(processedAt, reload(document).getProcessedAt());
+    }
+
+    // Helper methods
+
+    private String store(String originalFilename, String content) throws Exception {
+        MockMultipartFile file = new MockMultipartFile(
+                "file", originalFilename, "application/octet-stream", content.getBytes(StandardCharsets.UTF_8));
+        String storedPath = fileStorageService.storeFile(file);
+        filenames.add(Path.of(storedPath).getFileName().toString());
+        return storedPath;
+    }
+
+    private Document persistDocument(String storedPath) {
+        Document document = testData.document(uploader, course, FileStorageService.FILE_URL_PREFIX + storedPath);
+        entityManager.flush();
+        return document;
+    }
+
+    private Document reload(Document document) {
+        entityManager.clear();
+        return entityManager.find(Document.class, document.getDocumentId());
+    }
+}
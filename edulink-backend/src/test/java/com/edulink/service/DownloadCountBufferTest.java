@@ -0,0 +1,109 @@
+package com.edulink.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit test for the write-behind download counter, no database needed
+ */
+public class DownloadCountBufferTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private DownloadCountBuffer buffer;
+    private List<List<Object[]>> flushedBatches;
+
+    @BeforeEach
+    public void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        buffer = new DownloadCountBuffer(jdbcTemplate, new TransactionTemplate(mock(PlatformTransactionManager.class)));
+        flushedBatches = new ArrayList<>();
+
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(invocation -> {
+            flushedBatches.add(new ArrayList<>(invocation.getArgument(1)));
+            return new int[0];
+        });
+    }
+
+    @Test
+    public void testConcurrentIncrementsAreFlushedInOneBatch() throws InterruptedException {
+        int threads = 8;
+        int downloadsPerThread = 10_000;
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            executor.submit(() -> {
+                for (int i = 0; i < downloadsPerThread; i++) {
+                    buffer.increment(1L + (i % 2));
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        buffer.flush();
+
+        assertEquals(1, flushedBatches.size());
+        Map<Long, Long> counts = toCounts(flushedBatches.get(0));
+        assertEquals(threads * downloadsPerThread / 2, counts.get(1L));
+        assertEquals(threads * downloadsPerThread / 2, counts.get(2L));
+    }
+
+    @Test
+    public void testEmptyBufferDoesNotHitTheDatabase() {
+        buffer.increment(1L);
+        buffer.flush();
+        buffer.flush();
+
+        assertEquals(1, flushedBatches.size());
+    }
+
+    @Test
+    public void testFailedFlushKeepsCountsForNextFlush() {
+        buffer.increment(1L);
+        buffer.increment(1L);
+
+        doThrow(new DataAccessResourceFailureException("database down"))
+                .doAnswer(invocation -> {
+                    flushedBatches.add(new ArrayList<>(invocation.getArgument(1)));
+                    return new int[0];
+                })
+                .when(jdbcTemplate).batchUpdate(anyString(), anyList());
+
+        buffer.flush();
+        buffer.increment(1L);
+        buffer.flushOnShutdown();
+
+        assertEquals(1, flushedBatches.size());
+        assertEquals(3L, toCounts(flushedBatches.get(0)).get(1L));
+    }
+
+    // Helper methods
+
+    private Map<Long, Long> toCounts(List<Object[]> batch) {
+        Map<Long, Long> counts = new HashMap<>();
+        for (Object[] row : batch) {
+            counts.put((Long) row[1], (Long) row[0]);
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,162 @@
+package com.edulink.service;
+
+import com.edulink.dto.activity.ActivityDTO;
+import com.edulink.dto.document.DocumentDetailDTO;
+import com.edulink.dto.forum.ForumThreadDetailDTO;
+import com.edulink.model.Activity;
+import com.edulink.model.Course;
+import com.edulink.model.Document;
+import com.edulink.model.ForumReply;
+import com.edulink.model.ForumThread;
+import com.edulink.model.Student;
+import com.edulink.model.enums.ActivityType;
+import com.edulink.support.TestData;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Associations are lazy and each use case declares its fetch plan: the number of
+ * statements per call is fixed and does not grow with the number of related rows.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Transactional
+public class FetchPlanQueryCountTest {
+
+    @Autowired
+    private ForumService forumService;
+
+    @Autowired
+    private DocumentService documentService;
+
+    @Autowired
+    private ActivityService activityService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TestData testData;
+
+    private Student author;
+    private Course course;
+
+    @BeforeEach
+    public void setUp() {
+        author = testData.student("fetch-plan");
+        course = testData.course("fetch-plan");
+    }
+
+    @Test
+    public void testThreadDetailStatementCountIsConstant() {
+        ForumThread fewReplies = persistThread(2);
+        ForumThread manyReplies = persistThread(20);
+
+        long few = testData.countStatements(() -> forumService.getThreadById(fewReplies.getThreadId(), "viewer-1"));
+        long many = testData.countStatements(() -> forumService.getThreadById(manyReplies.getThreadId(), "viewer-1"));
+
+        assertEquals(2, few);
+        assertEquals(2, many);
+    }
+
+    @Test
+    public void testThreadDetailCarriesRepliesInOrder() {
+        ForumThread thread = persistThread(3);
+        testData.flushAndClear();
+
+        ForumThreadDetailDTO detail = forumService.getThreadById(thread.getThreadId(), "viewer-1");
+
+        assertEquals(author.getUsername(), detail.getAuthorUsername());
+        assertEquals(course.getCode(), detail.getCourseCode());
+        assertEquals(3, detail.getReplies().size());
+        assertEquals("Reply 0", detail.getReplies().get(0).getContent());
+        assertEquals(author.getUsername(), detail.getReplies().get(0).getUsername());
+        assertTrue(detail.getReplies().stream().allMatch(reply -> reply.getUsername() != null));
+    }
+
+    @Test
+    public void testDocumentDetailIsOneStatement() {
+        Document document = testData.document(author, course, "uploads/fetch-plan.pdf");
+
+        long statements = testData.countStatements(() -> documentService.getDocumentById(document.getDocumentId(), null));
+
+        assertEquals(1, statements);
+    }
+
+    @Test
+    public void testDocumentDetailCarriesUploaderAndCourse() {
+        Document document = testData.document(author, course, "uploads/fetch-plan.pdf");
+        testData.flushAndClear();
+
+        DocumentDetailDTO detail = documentService.getDocumentById(document.getDocumentId(), null);
+
+        assertEquals(author.getUsername(), detail.getUploaderUsername());
+        assertEquals("STUDENT", detail.getUploaderRole());
+        assertEquals(course.getCode(), detail.getCourseCode());
+    }
+
+    @Test
+    public void testActivityListingIsOneStatement() {
+        persistActivities(3);
+        long few = testData.countStatements(() -> activityService.getAllActivities());
+
+        persistActivities(20);
+        long many = testData.countStatements(() -> activityService.getAllActivities());
+
+        assertEquals(1, few);
+        assertEquals(1, many);
+    }
+
+    @Test
+    public void testActivityListingCarriesOrganizer() {
+        persistActivities(1);
+        testData.flushAndClear();
+
+        List<ActivityDTO> activities = activityService.getAllActivities();
+
+        assertTrue(activities.stream().anyMatch(activity ->
+                author.getUsername().equals(activity.getOrganizerUsername())
+                        && "STUDENT".equals(activity.getOrganizerRole())));
+    }
+
+    // Helper methods
+
+    private ForumThread persistThread(int replies) {
+        ForumThread thread = testData.thread(author, course);
+
+        LocalDateTime createdAt = LocalDateTime.now();
+        for (int i = 0; i < replies; i++) {
+            Student replier = testData.student("fetch-plan");
+            ForumReply reply = new ForumReply();
+            reply.setContent("Reply " + i);
+            reply.setThread(thread);
+            reply.setUser(i == 0 ? author : replier);
+            reply.setIsTeacherResponse(false);
+            entityManager.persist(reply);
+            reply.setCreatedAt(createdAt.plusSeconds(i));
+        }
+        return thread;
+    }
+
+    private void persistActivities(int count) {
+        for (int i = 0; i < count; i++) {
+            Activity activity = new Activity();
+            activity.setTitle("Fetch plan activity " + i);
+            activity.setActivityType(ActivityType.values()[0]);
+            activity.setOrganizer(i % 2 == 0 ? author : testData.student("fetch-plan"));
+            activity.setAttendance(0);
+            entityManager.persist(activity);
+        }
+    }
+}
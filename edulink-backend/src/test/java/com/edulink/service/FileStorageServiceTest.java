@@ -0,0 +1,191 @@
+package com.edulink.service;
+
+import com.edulink.exception.BusinessException;
+import com.edulink.model.StoredFile;
+import com.edulink.repository.StoredFileRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Uploads are stored by content in an ab/cd/ fan-out: the same bytes are written once
+ * and shared, and the file is deleted with its last reference. Not transactional, since
+ * files are only deleted once the releasing transaction commits.
+ */
+@SpringBootTest(properties = "file.upload-dir=target/test-uploads")
+@ActiveProfiles("test")
+public class FileStorageServiceTest {
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    @Autowired
+    private StoredFileRepository storedFileRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private final List<String> storedKeys = new ArrayList<>();
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        for (String key : storedKeys) {
+            storedFileRepository.deleteById(key);
+            fileStorageService.deleteFile(key);
+        }
+    }
+
+    @Test
+    public void testSameContentIsStoredOnce() throws Exception {
+        String content = "shared notes " + UUID.randomUUID();
+
+        String first = store("notes.pdf", content);
+        String second = store("copy of notes.PDF", content);
+
+        assertEquals(first, second);
+        assertTrue(first.endsWith(".pdf"));
+        assertEquals(content, Files.readString(fileStorageService.loadFile(first)));
+        StoredFile stored = storedFileRepository.findById(first).orElseThrow();
+        assertEquals(2, stored.getRefCount());
+        assertEquals(content.getBytes(StandardCharsets.UTF_8).length, stored.getSizeBytes());
+    }
+
+    @Test
+    public void testDifferentContentGetsDifferentKeys() throws Exception {
+        String first = store("a.txt", "first " + UUID.randomUUID());
+        String second = store("a.txt", "second " + UUID.randomUUID());
+
+        assertNotEquals(first, second);
+    }
+
+    @Test
+    public void testFileIsDeletedWithLastReference() throws Exception {
+        String content = "released notes " + UUID.randomUUID();
+        String key = store("notes.pdf", content);
+        store("notes.pdf", content);
+        Path path = fileStorageService.loadFile(key);
+
+        fileStorageService.releaseFile(key);
+        assertTrue(Files.exists(path));
+        assertEquals(1, storedFileRepository.findById(key).orElseThrow().getRefCount());
+
+        fileStorageService.releaseFile(key);
+        assertFalse(Files.exists(path));
+        assertFalse(storedFileRepository.existsById(key));
+    }
+
+    @Test
+    public void testContentStoredAgainBeforePurgeIsKept() throws Exception {
+        String content = "re-uploaded notes " + UUID.randomUUID();
+        String key = store("notes.pdf", content);
+
+        // The last reference goes and the same content comes back before the purge runs
+        transactionTemplate.executeWithoutResult(status -> {
+            fileStorageService.releaseFile(key);
+            try {
+                store("notes.pdf", content);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        assertEquals(content, Files.readString(fileStorageService.loadFile(key)));
+        assertEquals(1, storedFileRepository.findById(key).orElseThrow().getRefCount());
+    }
+
+    @Test
+    public void testFilesAreFannedOutByNamePrefix() throws Exception {
+        MockMultipartFile file = new MockMultipartFile(
+                "file", "slides.pdf", "application/pdf", ("slides " + UUID.randomUUID()).getBytes(StandardCharsets.UTF_8));
+
+        String relativePath = fileStorageService.storeFile(file);
+        String key = Path.of(relativePath).getFileName().toString();
+        storedKeys.add(key);
+
+        assertEquals(key.substring(0, 2) + "/" + key.substring(2, 4) + "/" + key, relativePath);
+        assertTrue(Files.exists(fileStorageService.loadFile(key)));
+    }
+
+    @Test
+    public void testReceivedBodyIsHashedAndMovedIntoTheStore() throws Exception {
+        byte[] content = ("streamed " + UUID.randomUUID()).getBytes(StandardCharsets.UTF_8);
+
+        FileStorageService.ReceivedFile received = fileStorageService.receiveFile(new ByteArrayInputStream(content), 1024);
+        String relativePath = fileStorageService.storeFile(received.path(), "lecture.pdf", received.sha256());
+        String key = Path.of(relativePath).getFileName().toString();
+        storedKeys.add(key);
+
+        assertEquals(HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content)) + ".pdf", key);
+        assertEquals(content.length, received.size());
+        assertArrayEquals(content, Files.readAllBytes(fileStorageService.loadFile(key)));
+        assertFalse(Files.exists(received.path()));
+    }
+
+    @Test
+    public void testOversizedBodyIsRejectedWithoutLeftovers() throws Exception {
+        Path partsDir = fileStorageService.partFile("probe").getParent();
+        long before;
+        try (var files = Files.list(partsDir)) {
+            before = files.count();
+        }
+
+        BusinessException error = assertThrows(BusinessException.class,
+                () -> fileStorageService.receiveFile(new ByteArrayInputStream(new byte[100]), 99));
+
+        assertEquals(HttpStatus.PAYLOAD_TOO_LARGE, error.getHttpStatus());
+        try (var files = Files.list(partsDir)) {
+            assertEquals(before, files.count());
+        }
+    }
+
+    @Test
+    public void testUnsafeExtensionIsDropped() throws Exception {
+        String key = store("evil./../../x", "traversal " + UUID.randomUUID());
+
+        assertTrue(key.matches("[0-9a-f]{64}"));
+    }
+
+    @Test
+    public void testLegacyFileIsDeletedOnRelease() throws Exception {
+        String legacyName = UUID.randomUUID() + ".pdf";
+        Path path = fileStorageService.loadFlatFile(legacyName);
+        Files.createDirectories(path.getParent());
+        Files.writeString(path, "uploaded before content addressing");
+
+        fileStorageService.releaseFile(legacyName);
+
+        assertFalse(Files.exists(path));
+    }
+
+    // Helper methods
+
+    private String store(String originalFilename, String content) throws Exception {
+        MockMultipartFile file = new MockMultipartFile(
+                "file", originalFilename, "application/octet-stream", content.getBytes(StandardCharsets.UTF_8));
+        String key = Path.of(fileStorageService.storeFile(file)).getFileName().toString();
+        storedKeys.add(key);
+        return key;
+    }
+}
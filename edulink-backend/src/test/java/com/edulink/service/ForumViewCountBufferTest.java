@@ -0,0 +1,94 @@
+package com.edulink.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit test for buffered forum view counting, no database needed
+ */
+public class ForumViewCountBufferTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final List<Object[]> flushedRows = new ArrayList<>();
+
+    @Test
+    public void testEveryViewCountsInPlainMode() {
+        ForumViewCountBuffer buffer = newBuffer(false);
+
+        for (int i = 0; i < 5; i++) {
+            buffer.recordView(1L, "user:alice");
+        }
+        buffer.flush();
+
+        assertEquals(5L, viewsFlushedFor(1L));
+    }
+
+    @Test
+    public void testRefreshingViewerCountsOnceInUniqueMode() {
+        ForumViewCountBuffer buffer = newBuffer(true);
+
+        for (int i = 0; i < 50; i++) {
+            buffer.recordView(1L, "user:alice");
+        }
+        buffer.recordView(1L, "user:bob");
+        buffer.flush();
+
+        buffer.recordView(1L, "user:alice");
+        buffer.recordView(1L, "user:carol");
+        buffer.flush();
+
+        assertEquals(3L, viewsFlushedFor(1L));
+    }
+
+    @Test
+    public void testLeastRecentlyViewedSketchesAreDropped() {
+        ForumViewCountBuffer buffer = newBuffer(true, 2);
+
+        buffer.recordView(1L, "user:alice");
+        buffer.recordView(2L, "user:alice");
+        buffer.recordView(3L, "user:alice");
+        buffer.flush();
+
+        // Threads 2 and 3 are still tracked; thread 1 starts over with a new sketch
+        buffer.recordView(3L, "user:alice");
+        buffer.recordView(1L, "user:alice");
+        buffer.flush();
+
+        assertEquals(2L, viewsFlushedFor(1L));
+        assertEquals(1L, viewsFlushedFor(2L));
+        assertEquals(1L, viewsFlushedFor(3L));
+    }
+
+    // Helper methods
+
+    private ForumViewCountBuffer newBuffer(boolean uniqueViewers) {
+        return newBuffer(uniqueViewers, 10_000);
+    }
+
+    private ForumViewCountBuffer newBuffer(boolean uniqueViewers, int maxTrackedThreads) {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(invocation -> {
+            flushedRows.addAll(invocation.getArgument(1));
+            return new int[0];
+        });
+        return new ForumViewCountBuffer(jdbcTemplate,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), uniqueViewers, maxTrackedThreads);
+    }
+
+    private long viewsFlushedFor(Long threadId) {
+        return flushedRows.stream()
+                .filter(row -> threadId.equals(row[1]))
+                .mapToLong(row -> (Long) row[0])
+                .sum();
+    }
+}
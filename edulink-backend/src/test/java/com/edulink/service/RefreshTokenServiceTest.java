@@ -0,0 +1,82 @@
+package com.edulink.service;
+
+import com.edulink.exception.BusinessException;
+import com.edulink.model.Student;
+import com.edulink.model.enums.UserRole;
+import com.edulink.repository.UserRepository;
+import com.edulink.support.TestData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Refresh token rotation and reuse detection. Not @Transactional: a rejected reuse
+ * must leave the family revoked in the database, which only shows across commits.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class RefreshTokenServiceTest {
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TestData testData;
+
+    private Student student;
+
+    @BeforeEach
+    public void setUp() {
+        student = testData.student("refresh");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        refreshTokenService.deleteAllForUser(student.getUserId());
+        userRepository.deleteById(student.getUserId());
+    }
+
+    @Test
+    public void testRotationIssuesNewTokenForSameUser() {
+        String first = refreshTokenService.issue(student);
+
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(first);
+
+        assertEquals(student.getUsername(), rotation.user().getUsername());
+        assertNotEquals(first, rotation.refreshToken());
+        assertEquals(UserRole.STUDENT, refreshTokenService.rotate(rotation.refreshToken()).user().getRole());
+    }
+
+    @Test
+    public void testReusedTokenRevokesTheWholeFamily() {
+        String first = refreshTokenService.issue(student);
+        String second = refreshTokenService.rotate(first).refreshToken();
+
+        BusinessException reuse = assertThrows(BusinessException.class, () -> refreshTokenService.rotate(first));
+        assertEquals(HttpStatus.UNAUTHORIZED, reuse.getHttpStatus());
+
+        // The legitimate successor is revoked along with the replayed token
+        assertThrows(BusinessException.class, () -> refreshTokenService.rotate(second));
+    }
+
+    @Test
+    public void testRevokedFamilyCannotBeRefreshed() {
+        String token = refreshTokenService.issue(student);
+
+        refreshTokenService.revoke(token);
+
+        assertThrows(BusinessException.class, () -> refreshTokenService.rotate(token));
+        assertThrows(BusinessException.class, () -> refreshTokenService.rotate("not-a-token"));
+    }
+}
@@ -0,0 +1,90 @@
+package com.edulink.service;
+
+import com.edulink.model.Course;
+import com.edulink.model.Document;
+import com.edulink.model.Student;
+import com.edulink.support.TestData;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Rating a document updates the uploader's reputation incrementally: the work done
+ * must not grow with the catalog, and the result must match a full recompute.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Transactional
+public class StudentReputationTest {
+
+    @Autowired
+    private DocumentRatingService ratingService;
+
+    @Autowired
+    private StudentReputationService reputationService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TestData testData;
+
+    private Student uploader;
+    private Course course;
+
+    @BeforeEach
+    public void setUp() {
+        uploader = testData.student("reputation");
+        course = testData.course("reputation");
+    }
+
+    @Test
+    public void testRatingCostDoesNotGrowWithCatalog() {
+        Document first = testData.document(uploader, course, "uploads/reputation.pdf");
+        long smallCatalog = testData.countStatements(() -> ratingService.rateDocument(first.getDocumentId(), 4, testData.student("reputation").getUsername()));
+
+        Student otherUploader = testData.student("reputation");
+        for (int i = 0; i < 200; i++) {
+            testData.document(i % 2 == 0 ? uploader : otherUploader, course, "uploads/reputation.pdf");
+        }
+        Document last = testData.document(uploader, course, "uploads/reputation.pdf");
+        long largeCatalog = testData.countStatements(() -> ratingService.rateDocument(last.getDocumentId(), 4, testData.student("reputation").getUsername()));
+
+        assertEquals(smallCatalog, largeCatalog);
+    }
+
+    @Test
+    public void testIncrementalReputationMatchesRecompute() {
+        Document notes = testData.document(uploader, course, "uploads/reputation.pdf");
+        Document exam = testData.document(uploader, course, "uploads/reputation.pdf");
+        Student rater = testData.student("reputation");
+        Student otherRater = testData.student("reputation");
+
+        ratingService.rateDocument(notes.getDocumentId(), 5, rater.getUsername());
+        ratingService.rateDocument(notes.getDocumentId(), 2, otherRater.getUsername());
+        ratingService.rateDocument(exam.getDocumentId(), 3, rater.getUsername());
+        ratingService.rateDocument(notes.getDocumentId(), 4, rater.getUsername()); // re-rate
+
+        // notes average 3.0, exam average 3.0 -> 120 points
+        double incremental = reputationOf(uploader);
+        reputationService.recomputeAll();
+        double recomputed = reputationOf(uploader);
+
+        assertEquals(120.0, incremental, 1e-9);
+        assertEquals(recomputed, incremental, 1e-9);
+    }
+
+    // Helper methods
+
+    private double reputationOf(Student student) {
+        entityManager.flush();
+        entityManager.clear();
+        return entityManager.find(Student.class, student.getUserId()).getReputationPoints();
+    }
+}
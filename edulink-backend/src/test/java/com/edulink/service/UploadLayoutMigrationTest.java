@@ -0,0 +1,113 @@
+package com.edulink.service;
+
+import com.edulink.model.Course;
+import com.edulink.model.Document;
+import com.edulink.model.Student;
+import com.edulink.support.TestData;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The layout migration moves flat uploads into the fan-out and rewrites fileUrl; it
+ * can run again without effect, and leaves documents whose file is missing alone.
+ */
+@SpringBootTest(properties = "file.upload-dir=target/test-uploads")
+@ActiveProfiles("test")
+@Transactional
+public class UploadLayoutMigrationTest {
+
+    @Autowired
+    private UploadLayoutMigration migration;
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TestData testData;
+
+    private Student uploader;
+    private Course course;
+    private String filename;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        uploader = testData.student("layout");
+        course = testData.course("layout");
+
+        filename = UUID.randomUUID() + ".pdf";
+        Path flat = fileStorageService.loadFlatFile(filename);
+        Files.createDirectories(flat.getParent());
+        Files.writeString(flat, "flat upload");
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        fileStorageService.deleteFile(filename);
+    }
+
+    @Test
+    public void testFlatFileIsMovedAndSharedUrlsRewritten() {
+        Document first = persistDocument(FileStorageService.FILE_URL_PREFIX + filename);
+        Document second = persistDocument(FileStorageService.FILE_URL_PREFIX + filename);
+
+        migration.migrate();
+
+        String expectedUrl = FileStorageService.FILE_URL_PREFIX + fileStorageService.relativePath(filename);
+        assertEquals(expectedUrl, reload(first).getFileUrl());
+        assertEquals(expectedUrl, reload(second).getFileUrl());
+        assertTrue(Files.exists(fileStorageService.loadFile(filename)));
+        assertFalse(Files.exists(fileStorageService.loadFlatFile(filename)));
+    }
+
+    @Test
+    public void testRunningAgainChangesNothing() {
+        Document document = persistDocument(FileStorageService.FILE_URL_PREFIX + filename);
+        migration.migrate();
+        String migratedUrl = reload(document).getFileUrl();
+
+        migration.migrate();
+
+        assertEquals(migratedUrl, reload(document).getFileUrl());
+        assertTrue(Files.exists(fileStorageService.loadFile(filename)));
+    }
+
+    @Test
+    public void testMissingFileKeepsItsUrl() {
+        String missingUrl = FileStorageService.FILE_URL_PREFIX + UUID.randomUUID() + ".pdf";
+        Document document = persistDocument(missingUrl);
+
+        migration.migrate();
+
+        assertEquals(missingUrl, reload(document).getFileUrl());
+    }
+
+    // Helper methods
+
+    private Document persistDocument(String fileUrl) {
+        Document document = testData.document(uploader, course, fileUrl);
+        entityManager.flush();
+        return document;
+    }
+
+    private Document reload(Document document) {
+        entityManager.clear();
+        return entityManager.find(Document.class, document.getDocumentId());
+    }
+}
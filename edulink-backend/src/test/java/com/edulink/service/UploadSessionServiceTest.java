@@ -0,0 +1,207 @@
+package com.edulink.service;
+
+import com.edulink.dto.document.DocumentDTO;
+import com.edulink.dto.document.UploadSessionCreateRequest;
+import com.edulink.dto.document.UploadSessionDTO;
+import com.edulink.exception.BusinessException;
+import com.edulink.model.Course;
+import com.edulink.model.Student;
+import com.edulink.repository.CourseRepository;
+import com.edulink.repository.UserRepository;
+import com.edulink.support.TestData;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Chunks of an upload session can arrive in any order and be retried; completion
+ * checks that all of them are there and that the file matches the client's checksum.
+ * Not transactional, since chunks are written outside of any transaction.
+ */
+@SpringBootTest(properties = {
+        "file.upload-dir=target/test-uploads",
+        "documents.upload-sessions.chunk-size=4"
+})
+@ActiveProfiles("test")
+public class UploadSessionServiceTest {
+
+    @Autowired
+    private UploadSessionService uploadSessionService;
+
+    @Autowired
+    private FileStorageService fileStorageService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TestData testData;
+
+    private Student uploader;
+    private Course course;
+    private byte[] content;
+
+    @BeforeEach
+    public void setUp() {
+        uploader = testData.student("upload");
+        course = testData.course("upload");
+
+        // Unique per test, so the stored file is never shared with another run
+        content = ("0123456789" + UUID.randomUUID().toString().substring(0, 8)).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        String key = sha256(content) + ".pdf";
+        jdbcTemplate.update("DELETE FROM documents WHERE course_id = ?", course.getCourseId());
+        jdbcTemplate.update("DELETE FROM stored_files WHERE content_key = ?", key);
+        for (String sessionId : jdbcTemplate.queryForList(
+                "SELECT session_id FROM upload_sessions WHERE uploader_id = ?", String.class, uploader.getUserId())) {
+            uploadSessionService.abortSession(sessionId, uploader.getUsername());
+        }
+        courseRepository.deleteById(course.getCourseId());
+        userRepository.deleteById(uploader.getUserId());
+        fileStorageService.deleteFile(key);
+    }
+
+    @Test
+    public void testChunksInAnyOrderMakeTheDocument() throws Exception {
+        UploadSessionDTO session = createSession();
+        assertEquals(5, session.getChunkCount());
+
+        for (int chunk : new int[]{4, 1, 3, 0, 2}) {
+            putChunk(session, chunk);
+        }
+        DocumentDTO document = uploadSessionService.completeSession(
+                session.getSessionId(), sha256(content), uploader.getUsername());
+
+        Path stored = fileStorageService.loadFile(sha256(content) + ".pdf");
+        assertArrayEquals(content, Files.readAllBytes(stored));
+        assertEquals("Chunked notes", document.getDocTitle());
+        assertEquals(FileStorageService.FILE_URL_PREFIX + fileStorageService.relativePath(sha256(content) + ".pdf"),
+                jdbcTemplate.queryForObject("SELECT file_url FROM documents WHERE document_id = ?",
+                        String.class, document.getDocumentId()));
+    }
+
+    @Test
+    public void testRetriedChunkIsRecordedOnce() {
+        UploadSessionDTO session = createSession();
+
+        putChunk(session, 2);
+        UploadSessionDTO state = putChunk(session, 2);
+
+        assertEquals(List.of(2), state.getReceivedChunks());
+    }
+
+    @Test
+    public void testMissingChunksBlockCompletion() {
+        UploadSessionDTO session = createSession();
+        putChunk(session, 0);
+        putChunk(session, 3);
+
+        BusinessException error = assertThrows(BusinessException.class, () -> uploadSessionService.completeSession(
+                session.getSessionId(), sha256(content), uploader.getUsername()));
+
+        assertEquals(HttpStatus.CONFLICT, error.getHttpStatus());
+        assertEquals(List.of(0, 3), uploadSessionService.getSession(session.getSessionId(), uploader.getUsername())
+                .getReceivedChunks());
+    }
+
+    @Test
+    public void testChecksumMismatchKeepsTheSession() {
+        UploadSessionDTO session = createSession();
+        for (int chunk = 0; chunk < session.getChunkCount(); chunk++) {
+            putChunk(session, chunk);
+        }
+
+        assertThrows(BusinessException.class, () -> uploadSessionService.completeSession(
+                session.getSessionId(), sha256("something else".getBytes(StandardCharsets.UTF_8)), uploader.getUsername()));
+
+        assertEquals(5, uploadSessionService.getSession(session.getSessionId(), uploader.getUsername())
+                .getReceivedChunks().size());
+    }
+
+    @Test
+    public void testChunkWriteInFlightDuringCompletionDoesNotReachStoredFile() throws Exception {
+        UploadSessionDTO session = createSession();
+        for (int chunk = 0; chunk < session.getChunkCount(); chunk++) {
+            putChunk(session, chunk);
+        }
+
+        // A retried chunk that opened the part file before completion and writes after it
+        try (FileChannel lateWrite = FileChannel.open(
+                fileStorageService.partFile(session.getSessionId()), StandardOpenOption.WRITE)) {
+            uploadSessionService.completeSession(session.getSessionId(), sha256(content), uploader.getUsername());
+
+            lateWrite.write(ByteBuffer.wrap("XXXX".getBytes(StandardCharsets.UTF_8)), 0);
+            lateWrite.force(false);
+        }
+
+        assertArrayEquals(content, Files.readAllBytes(fileStorageService.loadFile(sha256(content) + ".pdf")));
+        assertFalse(Files.exists(fileStorageService.partFile(session.getSessionId())));
+    }
+
+    @Test
+    public void testChunkOfWrongSizeIsRejected() {
+        UploadSessionDTO session = createSession();
+
+        assertThrows(BusinessException.class, () -> uploadSessionService.writeChunk(
+                session.getSessionId(), 0, new ByteArrayInputStream(new byte[5]), -1, uploader.getUsername()));
+
+        assertEquals(List.of(), uploadSessionService.getSession(session.getSessionId(), uploader.getUsername())
+                .getReceivedChunks());
+    }
+
+    // Helper methods
+
+    private UploadSessionDTO createSession() {
+        UploadSessionCreateRequest request = new UploadSessionCreateRequest(
+                "Chunked notes", "Uploaded in chunks", course.getCourseId(), "NOTES", "notes.pdf", (long) content.length);
+        return uploadSessionService.createSession(request, uploader.getUsername());
+    }
+
+    private UploadSessionDTO putChunk(UploadSessionDTO session, int chunk) {
+        int from = chunk * session.getChunkSize();
+        int to = Math.min(content.length, from + session.getChunkSize());
+        byte[] bytes = Arrays.copyOfRange(content, from, to);
+        return uploadSessionService.writeChunk(
+                session.getSessionId(), chunk, new ByteArrayInputStream(bytes), bytes.length, uploader.getUsername());
+    }
+
+    private static String sha256(byte[] bytes) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
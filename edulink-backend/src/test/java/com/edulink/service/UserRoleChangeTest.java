@@ -0,0 +1,129 @@
+package com.edulink.service;
+
+import com.edulink.dto.user.UserDTO;
+import com.edulink.dto.user.UserUpdateRequest;
+import com.edulink.model.Admin;
+import com.edulink.model.Student;
+import com.edulink.model.Teacher;
+import com.edulink.model.User;
+import com.edulink.model.enums.UserRole;
+import com.edulink.repository.UserRepository;
+import com.edulink.security.AuthenticatedUser;
+import com.edulink.security.JwtPrincipalResolver;
+import com.edulink.security.JwtUtil;
+import com.edulink.support.TestData;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * Users live in one table with the role as discriminator: a role change is a single
+ * UPDATE, and the user is read back as the entity type of its new role. Tokens issued
+ * before a role or username change stay with the user they were issued to.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+@Transactional
+public class UserRoleChangeTest {
+
+    @Autowired
+    private UserManagementService userManagementService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private TestData testData;
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private JwtPrincipalResolver principalResolver;
+
+    private Admin admin;
+
+    @BeforeEach
+    public void setUp() {
+        admin = testData.admin("role-change");
+    }
+
+    @Test
+    public void testRoleChangeIsOneUpdate() {
+        Student student = testData.student("role-change");
+
+        long statements = testData.countStatements(() ->
+                assertEquals(1, userRepository.changeRole(student.getUserId(), UserRole.TEACHER.name())));
+
+        assertEquals(1, statements);
+    }
+
+    @Test
+    public void testStudentBecomesTeacher() {
+        Student student = testData.student("role-change");
+        student.setReputationPoints(42.0);
+        entityManager.flush();
+
+        UserDTO updated = userManagementService.updateUser(student.getUserId(), roleChange(UserRole.TEACHER), admin.getUsername());
+
+        assertEquals("TEACHER", updated.getRole());
+        assertNull(updated.getReputationPoints());
+        User reloaded = userRepository.findById(student.getUserId()).orElseThrow();
+        assertInstanceOf(Teacher.class, reloaded);
+    }
+
+    @Test
+    public void testTeacherBecomesStudentWithNoReputation() {
+        Teacher teacher = testData.teacher("role-change");
+        entityManager.flush();
+
+        String renamedEmail = "renamed-" + teacher.getEmail();
+        UserUpdateRequest request = roleChange(UserRole.STUDENT);
+        request.setEmail(renamedEmail);
+        UserDTO updated = userManagementService.updateUser(teacher.getUserId(), request, admin.getUsername());
+
+        assertEquals("STUDENT", updated.getRole());
+        assertEquals(0.0, updated.getReputationPoints());
+        Student reloaded = assertInstanceOf(Student.class, userRepository.findById(teacher.getUserId()).orElseThrow());
+        assertEquals(renamedEmail, reloaded.getEmail());
+    }
+
+    @Test
+    public void testOldTokenOfRenamedUserDoesNotActAsNewOwnerOfTheName() {
+        Student student = testData.student("role-change");
+        String oldUsername = student.getUsername();
+        String token = jwtUtil.generateToken(student.getUserId(), oldUsername, UserRole.STUDENT.name());
+
+        UserUpdateRequest rename = new UserUpdateRequest();
+        rename.setUsername(oldUsername + "-renamed");
+        userManagementService.updateUser(student.getUserId(), rename, admin.getUsername());
+        Student newOwner = testData.student("role-change");
+        newOwner.setUsername(oldUsername);
+        testData.flushAndClear();
+
+        UserDetails principal = principalResolver.resolve(jwtUtil.verify(token));
+
+        assertEquals(student.getUserId(), ((AuthenticatedUser) principal).getUserId());
+        assertEquals(oldUsername + "-renamed", principal.getUsername());
+    }
+
+    // Helper methods
+
+    private UserUpdateRequest roleChange(UserRole role) {
+        UserUpdateRequest request = new UserUpdateRequest();
+        request.setRole(role);
+        return request;
+    }
+}
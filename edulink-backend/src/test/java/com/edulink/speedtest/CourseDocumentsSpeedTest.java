@@ -0,0 +1,159 @@
+package com.edulink.speedtest;
+
+import com.edulink.dto.CursorPageDTO;
+import com.edulink.dto.document.DocumentDTO;
+import com.edulink.model.Course;
+import com.edulink.model.Document;
+import com.edulink.model.Student;
+import com.edulink.model.enums.UserRole;
+import com.edulink.repository.DocumentRepository;
+import com.edulink.service.DocumentService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+public class CourseDocumentsSpeedTest {
+
+    private static final int APPROVED_DOCUMENTS = 20;
+    private static final int PENDING_DOCUMENTS = 2000;
+    private static final int PAGE_SIZE = 100;
+
+    @Autowired
+    private DocumentService documentService;
+
+    @Autowired
+    private DocumentRepository documentRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    /**
+     * Compare the old course listing (load every document of the course, drop
+     * unapproved ones in Java) with the indexed course_id + is_approved query,
+     * on a course with many pending uploads. Rows read are the documents rows
+     * PostgreSQL fetched, from pg_stat_xact_user_tables, so this needs the
+     * PostgreSQL test profile.
+     */
+    @Test
+    public void testCourseListingWithManyPendingUploads() {
+        System.out.println("\n=== Testing Course Listing With Pending Uploads ===");
+
+        Long courseId = seedCourse();
+        int requests = 10;
+
+        // Old path: findByCourse_CourseId + .filter(Document::getIsApproved)
+        long legacyTime = 0;
+        long legacyRowsRead = 0;
+        int legacyRowsReturned = 0;
+        for (int i = 0; i < requests; i++) {
+            entityManager.clear();
+            long rowsBefore = documentRowsRead();
+            long startTime = System.currentTimeMillis();
+
+            List<Document> documents = documentRepository.findByCourse_CourseId(courseId);
+            List<Document> approved = documents.stream()
+                    .filter(Document::getIsApproved)
+                    .collect(Collectors.toList());
+
+            legacyTime += System.currentTimeMillis() - startTime;
+            legacyRowsRead = documentRowsRead() - rowsBefore;
+            legacyRowsReturned = approved.size();
+        }
+
+        // New path: approval filter and ordering pushed into the indexed query
+        long indexedTime = 0;
+        long indexedRowsRead = 0;
+        int indexedRowsReturned = 0;
+        for (int i = 0; i < requests; i++) {
+            entityManager.clear();
+            long rowsBefore = documentRowsRead();
+            long startTime = System.currentTimeMillis();
+
+            CursorPageDTO<DocumentDTO> page = documentService.getDocumentsByCourse(courseId, null, PAGE_SIZE);
+
+            indexedTime += System.currentTimeMillis() - startTime;
+            indexedRowsRead = documentRowsRead() - rowsBefore;
+            indexedRowsReturned = page.getItems().size();
+        }
+
+        System.out.println("Course documents: " + APPROVED_DOCUMENTS + " approved, " + PENDING_DOCUMENTS + " pending");
+        System.out.println("Filter in Java   - rows read: " + legacyRowsRead
+                + ", average response time: " + ((double) legacyTime / requests) + "ms");
+        System.out.println("Indexed query    - rows read: " + indexedRowsRead
+                + ", average response time: " + ((double) indexedTime / requests) + "ms");
+
+        assertEquals(APPROVED_DOCUMENTS, legacyRowsReturned);
+        assertEquals(APPROVED_DOCUMENTS, indexedRowsReturned);
+        // Which plan the indexed query gets is checked by RepositoryIndexUsageTest; here it is only reported
+        assertTrue(legacyRowsRead >= APPROVED_DOCUMENTS + PENDING_DOCUMENTS);
+    }
+
+    // Helper methods
+
+    /**
+     * Rows of the documents table fetched by this transaction so far, by sequential
+     * and index scans
+     */
+    private long documentRowsRead() {
+        Object[] row = (Object[]) entityManager
+                .createNativeQuery("SELECT COALESCE(seq_tup_read, 0), COALESCE(idx_tup_fetch, 0) " +
+                        "FROM pg_stat_xact_user_tables WHERE relname = 'documents'")
+                .getSingleResult();
+        return ((Number) row[0]).longValue() + ((Number) row[1]).longValue();
+    }
+
+    private Long seedCourse() {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+
+        Student uploader = new Student();
+        uploader.setUsername("speedtest-" + suffix);
+        uploader.setEmail("speedtest-" + suffix + "@edulink.test");
+        uploader.setPassword("not-a-real-hash");
+        uploader.setRole(UserRole.STUDENT);
+        uploader.setCreatedAt(LocalDateTime.now());
+        entityManager.persist(uploader);
+
+        Course course = new Course();
+        course.setCourseName("Speed Test Course");
+        course.setCode("ST-" + suffix);
+        course.setSemester(1);
+        entityManager.persist(course);
+
+        for (int i = 0; i < APPROVED_DOCUMENTS + PENDING_DOCUMENTS; i++) {
+            Document document = new Document();
+            document.setDocTitle("Speed Test Document " + i);
+            document.setDocumentType("NOTES");
+            document.setUploader(uploader);
+            document.setCourse(course);
+            document.setFileUrl("uploads/speedtest-" + i + ".pdf");
+            document.setDownloadCount(0);
+            document.setIsApproved(i < APPROVED_DOCUMENTS);
+            entityManager.persist(document);
+
+            if (i % 500 == 0) {
+                entityManager.flush();
+                entityManager.clear();
+                uploader = entityManager.find(Student.class, uploader.getUserId());
+                course = entityManager.find(Course.class, course.getCourseId());
+            }
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+        return course.getCourseId();
+    }
+}
@@ -0,0 +1,85 @@
+package com.edulink.speedtest;
+
+import com.edulink.security.JwtUtil;
+import com.edulink.security.VerifiedJwt;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tokens validated per second by the JWT filter path.
+ *
+ * legacyFilterPath reproduces the old filter: four full parses per request, each one
+ * rebuilding the HMAC key and the parser. singleParse is the current JwtUtil.verify.
+ *
+ * Run with: mvn test-compile, then
+ * java -cp target/test-classes:target/classes:<test classpath> com.edulink.speedtest.JwtParsingBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtParsingBenchmark {
+
+    private static final String SECRET = "edulink_super_secret_key_for_jwt_token_generation_2024_secure!";
+
+    private JwtUtil jwtUtil;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 3_600_000L);
+        ReflectionTestUtils.invokeMethod(jwtUtil, "init");
+        token = jwtUtil.generateToken(1L, "benchmark-user", "STUDENT");
+    }
+
+    @Benchmark
+    public boolean legacyFilterPath() {
+        String username = legacyParse(token).getSubject();
+        String role = (String) legacyParse(token).get("role");
+        // validateToken: extractUsername + extractExpiration
+        boolean sameUser = username.equals(legacyParse(token).getSubject());
+        boolean expired = legacyParse(token).getExpiration().before(new Date());
+        return sameUser && !expired && role != null;
+    }
+
+    @Benchmark
+    public VerifiedJwt singleParse() {
+        return jwtUtil.verify(token);
+    }
+
+    private Claims legacyParse(String jwt) {
+        return Jwts.parserBuilder()
+                .setSigningKey(Keys.hmacShaKeyFor(SECRET.getBytes()))
+                .build()
+                .parseClaimsJws(jwt)
+                .getBody();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtParsingBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,144 @@
+package com.edulink.support;
+
+import com.edulink.model.Admin;
+import com.edulink.model.Course;
+import com.edulink.model.Document;
+import com.edulink.model.ForumThread;
+import com.edulink.model.Student;
+import com.edulink.model.Teacher;
+import com.edulink.model.User;
+import com.edulink.model.enums.ThreadStatus;
+import com.edulink.model.enums.UserRole;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Test data and statement counting shared by the database tests. Every name is unique,
+ * so tests do not collide with each other or with data left in the database. Methods
+ * join the test's transaction, or commit on their own when the test has none.
+ */
+@Component
+@RequiredArgsConstructor
+@Transactional
+public class TestData {
+
+    private final EntityManager entityManager;
+    private final EntityManagerFactory entityManagerFactory;
+
+    /**
+     * Persist the user with a unique username and email; the role follows its type
+     */
+    public <T extends User> T user(T user, String prefix) {
+        String name = unique(prefix);
+        user.setUsername(name);
+        user.setEmail(name + "@edulink.test");
+        user.setPassword("not-a-real-hash");
+        user.setRole(roleOf(user));
+        user.setCreatedAt(LocalDateTime.now());
+        entityManager.persist(user);
+        return user;
+    }
+
+    public Student student(String prefix) {
+        return user(new Student(), prefix);
+    }
+
+    public Teacher teacher(String prefix) {
+        return user(new Teacher(), prefix);
+    }
+
+    public Admin admin(String prefix) {
+        return user(new Admin(), prefix);
+    }
+
+    public Course course(String prefix) {
+        Course course = new Course();
+        course.setCourseName(prefix + " course");
+        course.setCode(unique(prefix));
+        course.setSemester(1);
+        entityManager.persist(course);
+        return course;
+    }
+
+    /**
+     * Persist an approved document with no downloads or ratings
+     */
+    public Document document(User uploader, Course course, String fileUrl) {
+        Document document = new Document();
+        document.setDocTitle("Test document");
+        document.setDocumentType("NOTES");
+        document.setUploader(uploader);
+        document.setCourse(course);
+        document.setFileUrl(fileUrl);
+        document.setDownloadCount(0);
+        document.setIsApproved(true);
+        entityManager.persist(document);
+        return document;
+    }
+
+    /**
+     * Persist an open thread with no views or replies
+     */
+    public ForumThread thread(User author, Course course) {
+        ForumThread thread = new ForumThread();
+        thread.setTitle("Test thread");
+        thread.setContent("Content");
+        thread.setAuthor(author);
+        thread.setCourse(course);
+        thread.setStatus(ThreadStatus.OPEN);
+        thread.setViews(0);
+        entityManager.persist(thread);
+        return thread;
+    }
+
+    /**
+     * Statements the call prepares, including its pending writes. Pending test data is
+     * written and the persistence context cleared first, so nothing is served from it
+     */
+    public long countStatements(Runnable call) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.setStatisticsEnabled(true);
+
+        entityManager.flush();
+        entityManager.clear();
+        statistics.clear();
+
+        call.run();
+        entityManager.flush();
+
+        return statistics.getPrepareStatementCount();
+    }
+
+    /**
+     * Write pending test data and clear the persistence context, so entities are read
+     * back from the database
+     */
+    public void flushAndClear() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    // Helper methods
+
+    private static String unique(String prefix) {
+        return prefix + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    private static UserRole roleOf(User user) {
+        if (user instanceof Student) {
+            return UserRole.STUDENT;
+        }
+        if (user instanceof Teacher) {
+            return UserRole.TEACHER;
+        }
+        return UserRole.ADMIN;
+    }
+}
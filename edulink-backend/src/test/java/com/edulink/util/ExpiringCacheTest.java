@@ -0,0 +1,62 @@
+package com.edulink.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ExpiringCacheTest {
+
+    private final AtomicLong now = new AtomicLong(1_000);
+
+    @Test
+    public void testEntriesExpireAfterTtl() {
+        ExpiringCache<String, String> cache = new ExpiringCache<>(10, Duration.ofSeconds(60), now::get);
+        cache.put("alice", "STUDENT");
+
+        now.addAndGet(59_999);
+        assertEquals("STUDENT", cache.get("alice"));
+
+        now.addAndGet(1);
+        assertNull(cache.get("alice"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    public void testSizeIsBoundedDroppingExpiredThenOldestEntries() {
+        ExpiringCache<Integer, Integer> cache = new ExpiringCache<>(3, Duration.ofSeconds(10), now::get);
+        cache.put(1, 1);
+        now.addAndGet(20_000);
+        cache.put(2, 2);
+        now.addAndGet(1);
+        cache.put(3, 3);
+        now.addAndGet(1);
+
+        cache.put(4, 4); // purges expired 1
+        cache.put(5, 5); // full, drops 2 (closest to expiry)
+
+        assertEquals(3, cache.size());
+        assertNull(cache.get(2));
+        assertEquals(3, cache.get(3));
+        assertEquals(5, cache.get(5));
+    }
+
+    @Test
+    public void testLoaderResultIsCachedButFailuresAreNot() {
+        ExpiringCache<String, String> cache = new ExpiringCache<>(10, Duration.ofSeconds(60), now::get);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get("alice", key -> "loaded-" + loads.incrementAndGet());
+        assertEquals("loaded-1", cache.get("alice", key -> "loaded-" + loads.incrementAndGet()));
+
+        assertThrows(IllegalStateException.class, () -> cache.get("bob", key -> {
+            throw new IllegalStateException("gone");
+        }));
+        assertNull(cache.get("bob"));
+    }
+}
@@ -0,0 +1,42 @@
+package com.edulink.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class HyperLogLogTest {
+
+    @Test
+    public void testRepeatedItemsAreCountedOnce() {
+        HyperLogLog sketch = new HyperLogLog();
+
+        assertTrue(sketch.add("user:alice"));
+        for (int i = 0; i < 1000; i++) {
+            assertFalse(sketch.add("user:alice"));
+        }
+
+        assertEquals(1, sketch.estimate());
+    }
+
+    @Test
+    public void testEstimateIsWithinErrorBounds() {
+        for (int distinct : new int[]{10, 500, 20_000}) {
+            HyperLogLog sketch = new HyperLogLog();
+            for (int i = 0; i < distinct; i++) {
+                sketch.add("ip:10.0." + (i / 256) + "." + (i % 256));
+                sketch.add("ip:10.0." + (i / 256) + "." + (i % 256));
+            }
+
+            // Three standard errors at the default precision is roughly 10%
+            double error = Math.abs(sketch.estimate() - distinct) / (double) distinct;
+            assertTrue(error < 0.10, "estimate " + sketch.estimate() + " for " + distinct + " distinct items");
+        }
+    }
+
+    @Test
+    public void testEmptySketchEstimatesZero() {
+        assertEquals(0, new HyperLogLog().estimate());
+    }
+}
@@ -0,0 +1,77 @@
+import axios from 'axios'
+
+const REFRESH_URL = 'http://localhost:8080/api/auth/refresh'
+
+let refreshing = null
+
+// Keep the tokens and user data of a login, register or refresh response
+export function storeSession(data) {
+  localStorage.setItem('token', data.token)
+  if (data.refreshToken) {
+    localStorage.setItem('refresh_token', data.refreshToken)
+  }
+}
+
+export function clearSession() {
+  localStorage.removeItem('token')
+  localStorage.removeItem('refresh_token')
+  localStorage.removeItem('edulink_user')
+}
+
+// Exchange the refresh token for a new access token. Concurrent callers share one
+// request: a refresh token can only be used once
+export function refreshAccessToken() {
+  if (!refreshing) {
+    const refreshToken = localStorage.getItem('refresh_token')
+    refreshing = (refreshToken
+      ? axios.post(REFRESH_URL, { refreshToken }, { skipAuthRefresh: true })
+          .then(response => {
+            storeSession(response.data)
+            return response.data.token
+          })
+          .catch(() => {
+            clearSession()
+            window.dispatchEvent(new Event('storage'))
+            return null
+          })
+      : Promise.resolve(null)
+    ).finally(() => {
+      refreshing = null
+    })
+  }
+  return refreshing
+}
+
+// Access tokens are short-lived: on a 401, refresh once and retry the request
+export function installAuthRefresh() {
+  axios.interceptors.response.use(undefined, async error => {
+    const request = error.config
+    if (error.response?.status !== 401 || !request || request.skipAuthRefresh || request.authRetried
+        || !request.headers?.Authorization) {
+      throw error
+    }
+
+    const token = await refreshAccessToken()
+    if (!token) {
+      throw error
+    }
+    request.authRetried = true
+    request.headers.Authorization = `Bearer ${token}`
+    return axios(request)
+  })
+}
+
+// fetch() version of the same, for requests that need a raw response body
+export async function fetchWithAuth(url, options = {}) {
+  const withToken = token => ({
+    ...options,
+    headers: { ...options.headers, 'Authorization': `Bearer ${token}` }
+  })
+
+  const response = await fetch(url, withToken(localStorage.getItem('token')))
+  if (response.status !== 401) {
+    return response
+  }
+  const token = await refreshAccessToken()
+  return token ? fetch(url, withToken(token)) : response
+}
@@ -1,6 +1,7 @@
 import { createApp } from 'vue'
 import { createRouter, createWebHistory } from 'vue-router'
 import App from './App.vue'
+import { installAuthRefresh } from './auth'
 import LandingPage from './pages/LandingPage.vue'
 import LoginPage from './pages/LoginPage.vue'
 import ProfilePage from './pages/ProfilePage.vue'
@@ -97,6 +98,8 @@ router.beforeEach((to, from, next) => {
   next()
 })
 
+installAuthRefresh()
+
 const app = createApp(App)
 app.use(router)
 app.mount('#app')
\ No newline at end of file